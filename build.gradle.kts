@@ -1,5 +1,6 @@
 plugins {
     java
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.github.lukesky19"
@@ -15,12 +16,64 @@ repositories {
 dependencies {
     compileOnly("io.papermc.paper:paper-api:1.21.4-R0.1-SNAPSHOT")
     compileOnly("com.github.lukesky19:SkyLib:1.2.0.0")
+
+    jmh("io.papermc.paper:paper-api:1.21.4-R0.1-SNAPSHOT")
+    jmh("com.github.lukesky19:SkyLib:1.2.0.0")
+
+    testImplementation("io.papermc.paper:paper-api:1.21.4-R0.1-SNAPSHOT")
+    testImplementation("com.github.lukesky19:SkyLib:1.2.0.0")
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    testCompileOnly("org.jetbrains:annotations:24.1.0")
 }
 
 java {
     toolchain.languageVersion.set(JavaLanguageVersion.of(21))
 }
 
+// The Vector API scanner is the only code that needs the incubating module, so it is compiled on its own and the rest
+// of the build stays free of the incubator warning.
+val vector: SourceSet = sourceSets.create("vector") {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+sourceSets.test {
+    runtimeClasspath += vector.output
+}
+
+// The benchmarks share the server stand-ins in src/test/java/.../fixture with the tests.
+sourceSets.named("jmh") {
+    compileClasspath += sourceSets.test.get().output
+    runtimeClasspath += vector.output + sourceSets.test.get().output
+}
+
+tasks.named<JavaCompile>("compileVectorJava") {
+    // The "using incubating module(s)" warning has no lint key of its own, only -Xlint:none silences it.
+    options.compilerArgs.addAll(listOf("--add-modules=jdk.incubator.vector", "-Xlint:none"))
+}
+
+tasks.test {
+    useJUnitPlatform()
+    jvmArgs("--add-modules=jdk.incubator.vector")
+
+    // AllocationGateTest reads its budgets from here, and writes measured ones back with -PupdateAllocationBudget.
+    val allocationBudget = file("src/test/allocation-budget.properties")
+    inputs.file(allocationBudget)
+    systemProperty("allocationBudget", allocationBudget.path)
+    if(project.hasProperty("updateAllocationBudget")) {
+        systemProperty("updateAllocationBudget", "true")
+        outputs.upToDateWhen { false }
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    jvmArgsAppend.add("--add-modules=jdk.incubator.vector")
+}
+
 tasks.withType<ProcessResources> {
     val props = mapOf("version" to version)
 
@@ -30,8 +83,18 @@ tasks.withType<ProcessResources> {
 }
 
 tasks.jar {
+    from(vector.output)
     manifest {
         attributes["paperweight-mappings-namespace"] = "mojang"
     }
     archiveClassifier.set("")
-}
\ No newline at end of file
+}
+
+tasks.register<JavaExec>("simulate") {
+    group = "verification"
+    description = "Replays a synthetic PvP trace against the plugin on a virtual tick clock. Pass the trace with -Ptrace=key=value,..."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("com.github.lukesky19.skycombatlog.simulation.LoadSimulator")
+    jvmArgs("--add-modules=jdk.incubator.vector")
+    args((project.findProperty("trace") as String?)?.split(",")?.filter { it.isNotBlank() } ?: emptyList<String>())
+}
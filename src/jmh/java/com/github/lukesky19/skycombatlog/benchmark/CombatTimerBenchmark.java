@@ -0,0 +1,115 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.benchmark;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.fixture.Fixtures;
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.tracker.BukkitCombatTracker;
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one second of the main thread combat timer (20 ticks) with every player tagged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CombatTimerBenchmark {
+    // The settings.yml default, so action bars come from the table pre-rendered at reload like they do for players.
+    // Players are re-tagged before every invocation, so nobody expires mid-run.
+    private static final int COMBAT_TIME = 60;
+
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    @Param({"TIMING_WHEEL", "PACKED"})
+    public StoreType storeType;
+
+    @Param({"ALIGNED", "SPREAD"})
+    public TimerScheduling timerScheduling;
+
+    private BukkitCombatTracker tracker;
+    private CombatManager combatManager;
+    private final List<Player> taggedPlayers = new ArrayList<>();
+
+    /**
+     * Tags every player.
+     * @throws Exception If the fixtures could not be created.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<UUID, Player> online = new HashMap<>();
+        for(int i = 0; i < players; i++) {
+            UUID uuid = UUID.randomUUID();
+            online.put(uuid, Fixtures.player(uuid, "Player" + i));
+        }
+
+        SkyCombatLog skyCombatLog = Fixtures.plugin(Fixtures.server(online));
+        SettingsManager settingsManager = new SettingsManager(skyCombatLog);
+        LocaleManager localeManager = new LocaleManager(skyCombatLog, settingsManager);
+        Fixtures.setSettings(settingsManager, localeManager, Fixtures.settings(COMBAT_TIME, storeType, timerScheduling));
+
+        combatManager = new CombatManager(skyCombatLog, settingsManager, localeManager, new CombatStats());
+        combatManager.startTimerTask();
+        tracker = (BukkitCombatTracker) combatManager.getCombatTracker();
+
+        // Tag players over one second, like a real fight, so the spread scheduling fills every bucket.
+        int tagged = 0;
+        for(Player player : online.values()) {
+            taggedPlayers.add(player);
+            combatManager.addPlayerInCombat(player, player.getUniqueId());
+            if(++tagged % Math.max(1, players / 20) == 0) tracker.tick();
+        }
+    }
+
+    /**
+     * Re-tags every player, so the store size stays the same for the whole run. Not measured.
+     */
+    @Setup(Level.Invocation)
+    public void refresh() {
+        for(Player player : taggedPlayers) {
+            combatManager.addPlayerInCombat(player, player.getUniqueId());
+        }
+    }
+
+    /**
+     * Runs one second worth of ticks, which includes one action bar update per player.
+     */
+    @Benchmark
+    public void oneSecond() {
+        for(int i = 0; i < 20; i++) {
+            tracker.tick();
+        }
+    }
+}
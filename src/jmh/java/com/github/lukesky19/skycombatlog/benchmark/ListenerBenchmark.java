@@ -0,0 +1,134 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.benchmark;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.fixture.Fixtures;
+import com.github.lukesky19.skycombatlog.listener.PlayerDamageListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerQuitListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerTeleportListener;
+import com.github.lukesky19.skycombatlog.manager.CombatLogBroadcaster;
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.policy.CombatRuleCache;
+import com.github.lukesky19.skycombatlog.punishment.PunishmentPipeline;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the listener handlers with stubbed players and pre-built events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListenerBenchmark {
+    private CombatManager combatManager;
+    private PlayerDamageListener damageListener;
+    private PlayerTeleportListener teleportListener;
+    private PlayerQuitListener quitListener;
+    private Player attacker;
+    private Player victim;
+    private EntityDamageByEntityEvent damageEvent;
+    private PlayerTeleportEvent teleportEvent;
+    private PlayerQuitEvent quitEvent;
+
+    /**
+     * Creates the listeners and the events they are fed.
+     * @throws Exception If the fixtures could not be created.
+     */
+    @Setup(Level.Trial)
+    @SuppressWarnings({"deprecation", "UnstableApiUsage"})
+    public void setup() throws Exception {
+        attacker = Fixtures.player(UUID.randomUUID(), "Attacker");
+        victim = Fixtures.player(UUID.randomUUID(), "Victim");
+
+        Map<UUID, Player> online = new HashMap<>();
+        online.put(attacker.getUniqueId(), attacker);
+        online.put(victim.getUniqueId(), victim);
+
+        SkyCombatLog skyCombatLog = Fixtures.plugin(Fixtures.server(online));
+        SettingsManager settingsManager = new SettingsManager(skyCombatLog);
+        LocaleManager localeManager = new LocaleManager(skyCombatLog, settingsManager);
+        Fixtures.setSettings(settingsManager, localeManager, Fixtures.settings(60, StoreType.TIMING_WHEEL));
+
+        CombatStats combatStats = new CombatStats();
+        combatManager = new CombatManager(skyCombatLog, settingsManager, localeManager, combatStats);
+        combatManager.startTimerTask();
+
+        damageListener = new PlayerDamageListener(settingsManager, combatManager, combatStats, new CombatRuleCache(settingsManager));
+        teleportListener = new PlayerTeleportListener(localeManager, combatManager, combatStats);
+        quitListener = new PlayerQuitListener(combatManager, new CombatLogBroadcaster(skyCombatLog, localeManager), combatStats,
+                new PunishmentPipeline(skyCombatLog, settingsManager, combatManager, combatStats));
+
+        DamageSource damageSource = Fixtures.stub(DamageSource.class, Map.of(
+                "getCausingEntity", args -> attacker,
+                "getDirectEntity", args -> attacker));
+        damageEvent = new EntityDamageByEntityEvent(attacker, victim, EntityDamageEvent.DamageCause.ENTITY_ATTACK, damageSource, 4.0);
+        Location location = new Location(null, 0, 64, 0);
+        teleportEvent = new PlayerTeleportEvent(victim, location, location, PlayerTeleportEvent.TeleportCause.COMMAND);
+        quitEvent = new PlayerQuitEvent(victim, Component.empty(), PlayerQuitEvent.QuitReason.DISCONNECTED);
+
+        // No ticks run, so the tag lasts for the whole trial.
+        long durationTicks = settingsManager.getCombatRules().getDurationTicks(null);
+        combatManager.tagCombatants(attacker, durationTicks, victim, durationTicks, 4.0);
+    }
+
+    /**
+     * A player-vs-player hit between two players that are already tagged.
+     */
+    @Benchmark
+    public void onPlayerDamage() {
+        damageListener.onPlayerDamage(damageEvent);
+    }
+
+    /**
+     * A command teleport by a tagged player, which is blocked.
+     */
+    @Benchmark
+    public void onTeleport() {
+        teleportEvent.setCancelled(false);
+        teleportListener.onTeleport(teleportEvent);
+    }
+
+    /**
+     * A tagged player logging out, which kills them and announces it.
+     */
+    @Benchmark
+    public void onPlayerQuit() {
+        combatManager.addPlayerInCombat(victim, victim.getUniqueId());
+        quitListener.onPlayerQuit(quitEvent);
+    }
+}
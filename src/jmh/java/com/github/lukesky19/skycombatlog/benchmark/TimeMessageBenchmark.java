@@ -0,0 +1,68 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.benchmark;
+
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the combat timer text for a range of remaining times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeMessageBenchmark {
+    // Seconds only, minutes and seconds, an hour, and days with every unit populated.
+    @Param({"5", "59", "754", "3600", "90061"})
+    public int time;
+
+    private LocaleManager localeManager;
+
+    /**
+     * Creates a LocaleManager that uses the default locale.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        localeManager = new LocaleManager(null, new SettingsManager(null));
+    }
+
+    /**
+     * Renders the time message string.
+     * @return The time message.
+     */
+    @Benchmark
+    public String getTimeMessage() {
+        return localeManager.getTimeMessage(time);
+    }
+
+    /**
+     * Looks up the action bar, which is served from the render cache after the first call.
+     * @return The action bar.
+     */
+    @Benchmark
+    public Component getActionBar() {
+        return localeManager.getActionBar(time);
+    }
+}
@@ -18,18 +18,27 @@
 package com.github.lukesky19.skycombatlog;
 
 import com.github.lukesky19.skycombatlog.command.SkyCombatLogCommand;
+import com.github.lukesky19.skycombatlog.configuration.manager.ConfigReloader;
 import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
 import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
 import com.github.lukesky19.skycombatlog.listener.PlayerDamageListener;
 import com.github.lukesky19.skycombatlog.listener.PlayerDeathListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerJoinListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerLocaleListener;
 import com.github.lukesky19.skycombatlog.listener.PlayerQuitListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerRuleListener;
 import com.github.lukesky19.skycombatlog.listener.PlayerTeleportListener;
+import com.github.lukesky19.skycombatlog.manager.CombatLogBroadcaster;
 import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.policy.CombatRuleCache;
+import com.github.lukesky19.skycombatlog.punishment.PunishmentPipeline;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The main plugin class
@@ -37,7 +46,9 @@ import java.util.List;
 public final class SkyCombatLog extends JavaPlugin {
     private SettingsManager settingsManager;
     private LocaleManager localeManager;
+    private ConfigReloader configReloader;
     private CombatManager combatManager;
+    private PunishmentPipeline punishmentPipeline;
 
     /**
      * The method ran on plugin startup.
@@ -47,10 +58,16 @@ public final class SkyCombatLog extends JavaPlugin {
         // Classes
         settingsManager = new SettingsManager(this);
         localeManager = new LocaleManager(this, settingsManager);
-        combatManager = new CombatManager(this, settingsManager, localeManager);
+        configReloader = new ConfigReloader(this, settingsManager, localeManager);
+        CombatStats combatStats = new CombatStats();
+        combatManager = new CombatManager(this, settingsManager, localeManager, combatStats);
+        punishmentPipeline = new PunishmentPipeline(this, settingsManager, combatManager, combatStats);
+        CombatRuleCache combatRuleCache = new CombatRuleCache(settingsManager);
+        combatStats.registerGauge("cached_combat_rules", combatRuleCache::size);
+        CombatLogBroadcaster combatLogBroadcaster = new CombatLogBroadcaster(this, localeManager);
 
         // Register plugin command
-        SkyCombatLogCommand skyMinesCommand = new SkyCombatLogCommand(this, localeManager);
+        SkyCombatLogCommand skyMinesCommand = new SkyCombatLogCommand(this, localeManager, combatStats, combatManager);
 
         this.getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS,
                 commands ->
@@ -60,12 +77,20 @@ public final class SkyCombatLog extends JavaPlugin {
 
         // Register Listeners.
         PluginManager pm = this.getServer().getPluginManager();
-        pm.registerEvents(new PlayerQuitListener(this, localeManager, combatManager), this);
-        pm.registerEvents(new PlayerTeleportListener(localeManager, combatManager), this);
-        pm.registerEvents(new PlayerDamageListener(combatManager), this);
-        pm.registerEvents(new PlayerDeathListener(combatManager), this);
+        pm.registerEvents(new PlayerQuitListener(combatManager, combatLogBroadcaster, combatStats, punishmentPipeline), this);
+        pm.registerEvents(new PlayerTeleportListener(localeManager, combatManager, combatStats), this);
+        pm.registerEvents(new PlayerDamageListener(settingsManager, combatManager, combatStats, combatRuleCache), this);
+        pm.registerEvents(new PlayerDeathListener(combatManager, combatStats), this);
+        pm.registerEvents(new PlayerJoinListener(combatManager, combatStats, punishmentPipeline), this);
+        pm.registerEvents(new PlayerLocaleListener(localeManager), this);
+        pm.registerEvents(new PlayerRuleListener(combatRuleCache), this);
 
-        reload();
+        // The settings must be loaded before the combat timer is created, so the first load is done on startup.
+        configReloader.reload();
+        localeManager.warm();
+
+        combatManager.startTimerTask();
+        punishmentPipeline.start();
     }
 
     /**
@@ -73,14 +98,17 @@ public final class SkyCombatLog extends JavaPlugin {
      */
     @Override
     public void onDisable() {
+        punishmentPipeline.stop();
         combatManager.stopTimerTask();
+        configReloader.stop();
     }
 
     /**
-     * Reloads all plugin data.
+     * Reloads all plugin data off the main thread.
+     * @return A CompletableFuture completed with true if the new configuration is in use, false if the previous
+     * configuration was kept.
      */
-    public void reload() {
-        settingsManager.reload();
-        localeManager.reload();
+    public CompletableFuture<Boolean> reload() {
+        return configReloader.reloadAsync();
     }
 }
@@ -0,0 +1,139 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.attribution;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * The most recent hits a player took from other players, kept in a fixed-size ring of primitive arrays.
+ * Recording a hit overwrites the oldest one once the ring is full and does not allocate, so the history stays bounded
+ * however many players join a fight.
+ * Not thread-safe, a player's history must only be used by the thread that owns the player.
+ */
+public class AttackerHistory {
+    /**
+     * The number of hits kept per player.
+     */
+    public static final int CAPACITY = 16;
+
+    private final long[] mostSignificantBits = new long[CAPACITY];
+    private final long[] leastSignificantBits = new long[CAPACITY];
+    private final int[] ticks = new int[CAPACITY];
+    private final double[] damage = new double[CAPACITY];
+    private int next;
+    private int size;
+
+    /**
+     * Records a hit.
+     * @param attacker The UUID of the attacking player.
+     * @param tick The server tick the hit landed on.
+     * @param hitDamage The final damage of the hit.
+     */
+    public void record(@NotNull UUID attacker, int tick, double hitDamage) {
+        mostSignificantBits[next] = attacker.getMostSignificantBits();
+        leastSignificantBits[next] = attacker.getLeastSignificantBits();
+        ticks[next] = tick;
+        damage[next] = hitDamage;
+
+        next = (next + 1) % CAPACITY;
+        if(size < CAPACITY) size++;
+    }
+
+    /**
+     * Gets the player that landed the most recent hit.
+     * @param sinceTick Hits before this server tick are ignored.
+     * @return The UUID of the attacker or null if there was no hit since the tick.
+     */
+    @Nullable
+    public UUID getLastAttacker(int sinceTick) {
+        if(size == 0) return null;
+
+        int last = (next + CAPACITY - 1) % CAPACITY;
+        if(ticks[last] - sinceTick < 0) return null;
+
+        return new UUID(mostSignificantBits[last], leastSignificantBits[last]);
+    }
+
+    /**
+     * Gets the player that dealt the most damage over the recorded hits. Ties go to the player that hit last.
+     * @param sinceTick Hits before this server tick are ignored.
+     * @return The UUID of the attacker or null if there was no hit since the tick.
+     */
+    @Nullable
+    public UUID getTopAttacker(int sinceTick) {
+        int top = -1;
+        double topDamage = 0.0;
+
+        // Walk from the newest hit to the oldest, summing each attacker's damage at their newest hit only.
+        for(int i = 0; i < size; i++) {
+            int index = (next + CAPACITY - 1 - i) % CAPACITY;
+            if(ticks[index] - sinceTick < 0 || isCountedAt(index, i)) continue;
+
+            double total = 0.0;
+            for(int j = i; j < size; j++) {
+                int other = (next + CAPACITY - 1 - j) % CAPACITY;
+                if(ticks[other] - sinceTick >= 0 && isSameAttacker(index, other)) total += damage[other];
+            }
+
+            if(top == -1 || total > topDamage) {
+                top = index;
+                topDamage = total;
+            }
+        }
+
+        if(top == -1) return null;
+
+        return new UUID(mostSignificantBits[top], leastSignificantBits[top]);
+    }
+
+    /**
+     * Gets the number of recorded hits.
+     * @return The number of recorded hits.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the attacker of a hit also landed a newer hit, meaning their damage was already summed.
+     * @param index The ring index of the hit.
+     * @param age How many hits are newer than it.
+     * @return true if a newer hit is from the same attacker, false if not.
+     */
+    private boolean isCountedAt(int index, int age) {
+        for(int i = 0; i < age; i++) {
+            if(isSameAttacker(index, (next + CAPACITY - 1 - i) % CAPACITY)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if two hits came from the same attacker.
+     * @param first The ring index of the first hit.
+     * @param second The ring index of the second hit.
+     * @return true if the same attacker landed both, false if not.
+     */
+    private boolean isSameAttacker(int first, int second) {
+        return mostSignificantBits[first] == mostSignificantBits[second]
+                && leastSignificantBits[first] == leastSignificantBits[second];
+    }
+}
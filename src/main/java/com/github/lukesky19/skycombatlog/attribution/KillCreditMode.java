@@ -0,0 +1,36 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.attribution;
+
+/**
+ * Which attacker is credited with the kill when a player combat logs.
+ */
+public enum KillCreditMode {
+    /**
+     * Nobody is credited.
+     */
+    NONE,
+    /**
+     * The player that hit the combat logger last.
+     */
+    LAST_ATTACKER,
+    /**
+     * The player that dealt the combat logger the most damage during their combat time.
+     */
+    TOP_DAMAGE
+}
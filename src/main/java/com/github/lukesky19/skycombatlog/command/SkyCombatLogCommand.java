@@ -19,12 +19,25 @@ package com.github.lukesky19.skycombatlog.command;
 
 import com.github.lukesky19.skycombatlog.SkyCombatLog;
 import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
-import com.github.lukesky19.skycombatlog.configuration.record.Locale;
+import com.github.lukesky19.skycombatlog.display.DisplayMode;
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
 import com.github.lukesky19.skylib.format.FormatUtil;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 
 /**
  * This class handles the creation of the SkyCombatLog command.
@@ -32,15 +45,21 @@ import io.papermc.paper.command.brigadier.Commands;
 public class SkyCombatLogCommand {
     private final SkyCombatLog skyCombatLog;
     private final LocaleManager localeManager;
+    private final CombatStats combatStats;
+    private final CombatManager combatManager;
 
     /**
      * Constructor
      * @param skyCombatLog The SkyCombatLog plugin
      * @param localeManager A LocaleManager instance/
+     * @param combatStats A CombatStats instance.
+     * @param combatManager A CombatManager instance.
      */
-    public SkyCombatLogCommand(SkyCombatLog skyCombatLog, LocaleManager localeManager) {
+    public SkyCombatLogCommand(SkyCombatLog skyCombatLog, LocaleManager localeManager, CombatStats combatStats, CombatManager combatManager) {
         this.skyCombatLog = skyCombatLog;
         this.localeManager = localeManager;
+        this.combatStats = combatStats;
+        this.combatManager = combatManager;
     }
 
     /**
@@ -48,22 +67,84 @@ public class SkyCombatLogCommand {
      * @return A LiteralCommandNode of a CommandSourceStack.
      */
     public LiteralCommandNode<CommandSourceStack> createCommand() {
+        // Players reach the display sub-command through its own permission, without access to the rest of the command.
         LiteralArgumentBuilder<CommandSourceStack> builder = Commands.literal("skycombatlog")
-                .requires(ctx -> ctx.getSender().hasPermission("skycombatlog.commands.skycombatlog"));
+                .requires(ctx -> ctx.getSender().hasPermission("skycombatlog.commands.skycombatlog")
+                        || ctx.getSender().hasPermission("skycombatlog.commands.skycombatlog.display"));
 
         builder.then(Commands.literal("reload")
             .requires(ctx -> ctx.getSender().hasPermission("skycombatlog.commands.skycombatlog.reload"))
             .executes(ctx -> {
-                Locale locale = localeManager.getLocale();
+                CommandSender sender = ctx.getSource().getSender();
 
-                skyCombatLog.reload();
+                skyCombatLog.reload().thenAccept(reloaded -> {
+                    if(reloaded) {
+                        sender.sendMessage(localeManager.getMessages(sender).reload().render());
+                    } else {
+                        sender.sendMessage(localeManager.getMessages(sender).reloadFailed().render());
+                    }
+                });
 
-                ctx.getSource().getSender().sendMessage(FormatUtil.format(locale.prefix() + locale.reload()));
+                return 1;
+            })
+        );
+
+        builder.then(Commands.literal("stats")
+            .requires(ctx -> ctx.getSender().hasPermission("skycombatlog.commands.skycombatlog.stats"))
+            .executes(ctx -> {
+                CommandSender sender = ctx.getSource().getSender();
+
+                sender.sendMessage(localeManager.getMessages(sender).prefix().render().append(Component.text(combatStats.buildReport())));
 
                 return 1;
             })
+            .then(Commands.literal("dump")
+                .executes(ctx -> {
+                    dumpStats(ctx.getSource().getSender());
+
+                    return 1;
+                })
+            )
         );
 
+        LiteralArgumentBuilder<CommandSourceStack> display = Commands.literal("display")
+                .requires(ctx -> ctx.getSender() instanceof Player && ctx.getSender().hasPermission("skycombatlog.commands.skycombatlog.display"));
+        for(DisplayMode mode : DisplayMode.values()) {
+            String name = mode.name().toLowerCase(Locale.ROOT);
+
+            display.then(Commands.literal(name)
+                .executes(ctx -> {
+                    if(!(ctx.getSource().getSender() instanceof Player player)) return 0;
+
+                    // The player is taken off their current display on their own thread, since it may be a shared boss bar.
+                    player.getScheduler().run(skyCombatLog, task -> combatManager.setDisplayMode(player, mode), null);
+                    player.sendMessage(localeManager.getMessages(player).displayChanged().render("display", name.replace('_', ' ')));
+
+                    return 1;
+                })
+            );
+        }
+        builder.then(display);
+
         return builder.build();
     }
+
+    /**
+     * Writes the statistics report to a file in the plugin's data folder off the main thread.
+     * @param sender The CommandSender to notify once the file was written.
+     */
+    private void dumpStats(@NotNull CommandSender sender) {
+        String report = combatStats.buildReport();
+        String fileName = "stats-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + ".txt";
+        Path path = skyCombatLog.getDataFolder().toPath().resolve(fileName);
+
+        skyCombatLog.getServer().getAsyncScheduler().runNow(skyCombatLog, task -> {
+            try {
+                Files.writeString(path, report);
+                sender.sendMessage(localeManager.getMessages(sender).statsDumped().render("file", fileName));
+            } catch (IOException e) {
+                skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to write the plugin's statistics to " + fileName + ".</red>"));
+            }
+        });
+    }
 }
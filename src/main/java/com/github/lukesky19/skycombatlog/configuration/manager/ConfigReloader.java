@@ -0,0 +1,236 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.configuration.manager;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.record.ConfigSnapshot;
+import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skylib.format.FormatUtil;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class reloads the plugin's configuration on a background thread.
+ * Settings and locale are loaded, validated and pre-rendered into a {@link ConfigSnapshot} that is published with a
+ * single swap, so the main thread never waits on disk and never sees a half-loaded configuration.
+ * If a file fails to load, the previous snapshot stays in use.
+ * Optionally watches settings.yml and the locale folder and reloads when they change.
+ */
+public class ConfigReloader {
+    private static final long WATCH_DEBOUNCE_MILLIS = 500L;
+
+    private final SkyCombatLog skyCombatLog;
+    private final SettingsManager settingsManager;
+    private final LocaleManager localeManager;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SkyCombatLog-Config");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledFuture<?> pendingReload;
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin.
+     * @param settingsManager A SettingsManager instance.
+     * @param localeManager A LocaleManager instance.
+     */
+    public ConfigReloader(
+            SkyCombatLog skyCombatLog,
+            SettingsManager settingsManager,
+            LocaleManager localeManager) {
+        this.skyCombatLog = skyCombatLog;
+        this.settingsManager = settingsManager;
+        this.localeManager = localeManager;
+    }
+
+    /**
+     * Loads and publishes the configuration on the calling thread. Used on startup, where the settings must be
+     * available before the combat timer is created.
+     * @return true if the configuration was published, false if the previous configuration was kept.
+     */
+    public boolean reload() {
+        return loadAndPublish();
+    }
+
+    /**
+     * Loads and publishes the configuration on the background thread.
+     * @return A CompletableFuture completed with true if the configuration was published, false if the previous
+     * configuration was kept.
+     */
+    @NotNull
+    public CompletableFuture<Boolean> reloadAsync() {
+        return CompletableFuture.supplyAsync(this::loadAndPublish, executor);
+    }
+
+    /**
+     * Stops watching the configuration files and shuts down the background thread.
+     */
+    public void stop() {
+        updateWatcher(false);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds a snapshot from the files on disk and publishes it if everything loaded.
+     * @return true if the configuration was published, false if the previous configuration was kept.
+     */
+    private synchronized boolean loadAndPublish() {
+        ComponentLogger logger = skyCombatLog.getComponentLogger();
+
+        Settings settings = settingsManager.load();
+        if(settings == null) {
+            logger.warn(FormatUtil.format("<yellow>settings.yml failed to load, the previous configuration will stay in use.</yellow>"));
+            return false;
+        }
+
+        ConfigSnapshot snapshot = localeManager.load(settings);
+        if(snapshot == null) {
+            logger.warn(FormatUtil.format("<yellow>The plugin's locale failed to load, the previous configuration will stay in use.</yellow>"));
+            return false;
+        }
+
+        settingsManager.publish(snapshot);
+        updateWatcher(settings.watchFiles());
+        return true;
+    }
+
+    /**
+     * Starts or stops the file watcher to match the settings.
+     * @param enabled Whether the configuration files should be watched.
+     */
+    private synchronized void updateWatcher(boolean enabled) {
+        if(enabled && watchThread == null) {
+            startWatcher();
+        } else if(!enabled && watchThread != null) {
+            stopWatcher();
+        }
+    }
+
+    /**
+     * Registers the data folder and the locale folder with a WatchService and starts the thread that waits on it.
+     */
+    private void startWatcher() {
+        Path dataFolder = skyCombatLog.getDataFolder().toPath();
+        Path localeFolder = dataFolder.resolve("locale");
+
+        try {
+            Files.createDirectories(localeFolder);
+
+            watchService = FileSystems.getDefault().newWatchService();
+            dataFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            localeFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to watch the plugin's configuration files for changes.</red>"));
+            closeWatchService();
+            return;
+        }
+
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watch(service, dataFolder, localeFolder), "SkyCombatLog-ConfigWatcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stops the watcher thread by closing its WatchService.
+     */
+    private void stopWatcher() {
+        closeWatchService();
+        watchThread = null;
+
+        if(pendingReload != null) {
+            pendingReload.cancel(false);
+            pendingReload = null;
+        }
+    }
+
+    /**
+     * Closes the WatchService, which wakes the watcher thread up so it can exit.
+     */
+    private void closeWatchService() {
+        if(watchService == null) return;
+
+        try {
+            watchService.close();
+        } catch (IOException ignored) {}
+
+        watchService = null;
+    }
+
+    /**
+     * Waits for changes to settings.yml or a locale file and schedules a reload for them.
+     * Runs until the WatchService is closed.
+     * @param service The WatchService to wait on.
+     * @param dataFolder The plugin's data folder.
+     * @param localeFolder The plugin's locale folder.
+     */
+    private void watch(@NotNull WatchService service, @NotNull Path dataFolder, @NotNull Path localeFolder) {
+        try {
+            while(true) {
+                WatchKey key = service.take();
+
+                boolean changed = false;
+                for(WatchEvent<?> event : key.pollEvents()) {
+                    if(!(event.context() instanceof Path fileName)) continue;
+
+                    Path folder = (Path) key.watchable();
+                    if(folder.equals(dataFolder) && fileName.toString().equals("settings.yml")) changed = true;
+                    if(folder.equals(localeFolder) && fileName.toString().endsWith(".yml")) changed = true;
+                }
+
+                key.reset();
+                if(changed) scheduleReload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            // The watcher was stopped.
+        }
+    }
+
+    /**
+     * Schedules a reload shortly after the last file change, so an editor writing a file in several steps only
+     * causes one reload.
+     */
+    private synchronized void scheduleReload() {
+        if(executor.isShutdown()) return;
+        if(pendingReload != null) pendingReload.cancel(false);
+
+        pendingReload = executor.schedule(() -> {
+            if(loadAndPublish()) {
+                skyCombatLog.getComponentLogger().info(FormatUtil.format("<green>Reloaded the plugin's configuration after a file change.</green>"));
+            }
+        }, WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
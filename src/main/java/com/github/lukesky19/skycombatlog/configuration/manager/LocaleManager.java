@@ -18,27 +18,53 @@
 package com.github.lukesky19.skycombatlog.configuration.manager;
 
 import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.record.ConfigSnapshot;
 import com.github.lukesky19.skycombatlog.configuration.record.Locale;
+import com.github.lukesky19.skycombatlog.configuration.record.LocaleMessages;
 import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.policy.CombatRules;
+import com.github.lukesky19.skycombatlog.policy.TeleportPolicy;
+import com.github.lukesky19.skycombatlog.util.ComponentTemplate;
+import com.github.lukesky19.skycombatlog.zone.SafeZoneIndex;
 import com.github.lukesky19.skylib.config.ConfigurationUtility;
 import com.github.lukesky19.skylib.format.FormatUtil;
 import com.github.lukesky19.skylib.libs.configurate.ConfigurateException;
 import com.github.lukesky19.skylib.libs.configurate.yaml.YamlConfigurationLoader;
 import com.github.lukesky19.skylib.record.Time;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * This class loads the plugin's locale configuration.
+ * Loaded messages are pre-parsed into a {@link ConfigSnapshot} that is published together with the settings, so
+ * messages are never parsed from MiniMessage when they are sent.
+ * With client locales enabled, every file in the locale folder is loaded and players are sent the messages of the file
+ * matching their client's language, falling back to the configured locale.
  */
 public class LocaleManager {
+    private static final int MAX_PRECOMPILED_ACTION_BARS = 3600;
+    private static final int DEFAULT_MAX_CACHED_ACTION_BARS = 256;
+
     private final SkyCombatLog skyCombatLog;
     private final SettingsManager settingsManager;
     private final Locale DEFAULT_LOCALE = new Locale(
@@ -59,8 +85,25 @@ public class LocaleManager {
                     "<aqua><hours></aqua> hour(s)",
                     "<aqua><minutes></aqua> minute(s)",
                     "<aqua><seconds></aqua> second(s)",
-                    "."));
-    private Locale locale;
+                    "."),
+            "<dark_red>Players <aqua><player_names></aqua> logged out in combat and were killed!</dark_red>",
+            " <gray>and <white><count></white> others</gray>",
+            " <gray>and <white><count></white> other</gray>",
+            " and ",
+            "<green>Statistics were written to <white><file></white>.</green>",
+            "<red>The plugin failed to reload, the previous configuration is still in use. Check the console for errors.</red>",
+            "<green>Your combat timer is now shown as <white><display></white>.</green>");
+    private final ConfigSnapshot defaultSnapshot;
+    private ConfigSnapshot cachedActionBarsOwner;
+    private int maxCachedActionBars = DEFAULT_MAX_CACHED_ACTION_BARS;
+    // Keyed by the id of the locale's messages in the upper 32 bits and the remaining seconds in the lower 32 bits.
+    private final Map<Long, Component> cachedActionBars = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Component> eldest) {
+            return size() > maxCachedActionBars;
+        }
+    };
+    private final Map<UUID, ClientLocale> clientLocales = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -72,6 +115,7 @@ public class LocaleManager {
             SettingsManager settingsManager)  {
         this.skyCombatLog = skyCombatLog;
         this.settingsManager = settingsManager;
+        this.defaultSnapshot = compile(null, DEFAULT_LOCALE, List.of());
     }
 
     /**
@@ -80,40 +124,449 @@ public class LocaleManager {
      */
     @NotNull
     public Locale getLocale() {
-        if(locale == null) return DEFAULT_LOCALE;
-        return locale;
+        return getSnapshot().messages().locale();
+    }
+
+    /**
+     * Loads the locale configured in the given settings, and every other locale file if client locales are enabled, and
+     * pre-parses their messages, without publishing anything.
+     * Safe to call off the main thread.
+     * @param settings The Settings the snapshot is built for.
+     * @return A ConfigSnapshot or null if the configured locale file failed to load.
+     */
+    @Nullable
+    public ConfigSnapshot load(@NotNull Settings settings) {
+        Locale locale = loadLocale(settings);
+        if(locale == null) return null;
+
+        List<Map.Entry<String, Locale>> clientLocaleFiles = isClientLocalesEnabled(settings) ? loadClientLocales(settings) : List.of();
+
+        return compile(settings, locale, clientLocaleFiles);
+    }
+
+    /**
+     * Gets the pre-parsed messages of the configured locale.
+     * @return The LocaleMessages
+     */
+    @NotNull
+    public LocaleMessages getMessages() {
+        return getSnapshot().messages();
+    }
+
+    /**
+     * Gets the pre-parsed messages in the language of a player's client.
+     * Safe to call from any thread.
+     * @param sender The CommandSender to get the messages for.
+     * @return The LocaleMessages of the player's language, or of the configured locale if there is no file for it or
+     * the sender is not a player.
+     */
+    @NotNull
+    public LocaleMessages getMessages(@NotNull CommandSender sender) {
+        return getMessages(getSnapshot(), sender);
+    }
+
+    /**
+     * Checks if any locale other than the configured one was loaded for players' client languages.
+     * @return true if client locales are in use, false if every player gets the configured locale.
+     */
+    public boolean hasClientLocales() {
+        return !getSnapshot().clientLocales().isEmpty();
+    }
+
+    /**
+     * Records the language of a player's client, so messages are sent in it.
+     * @param uuid The UUID of the player.
+     * @param locale The locale of the player's client.
+     */
+    public void setClientLocale(@NotNull UUID uuid, @NotNull java.util.Locale locale) {
+        clientLocales.put(uuid, ClientLocale.of(locale));
+    }
+
+    /**
+     * Forgets the language of a player's client.
+     * @param uuid The UUID of the player.
+     */
+    public void removeClientLocale(@NotNull UUID uuid) {
+        clientLocales.remove(uuid);
+    }
+
+    /**
+     * Gets the teleport rules compiled with the published settings and locale.
+     * @return A TeleportPolicy
+     */
+    @NotNull
+    public TeleportPolicy getTeleportPolicy() {
+        return getSnapshot().teleportPolicy();
+    }
+
+    /**
+     * Renders every message of the published snapshot once, with placeholder values, and discards the results.
+     * Called on enable so the classes and code paths used to fill templates are loaded and warmed up before the first
+     * player enters combat, instead of on the main thread in the middle of a fight.
+     */
+    public void warm() {
+        ConfigSnapshot snapshot = getSnapshot();
+
+        warm(snapshot.messages());
+        snapshot.clientLocales().values().forEach(this::warm);
+        snapshot.teleportPolicy().getDenialMessage();
+
+        getActionBar(snapshot, snapshot.messages(), 0);
+        getActionBar(snapshot, snapshot.messages(), snapshot.actionBars().length);
+    }
+
+    /**
+     * Renders every message of a locale once and discards the results.
+     * @param messages The LocaleMessages to render.
+     */
+    private void warm(@NotNull LocaleMessages messages) {
+        messages.prefix().render();
+        messages.reload().render();
+        messages.inCombat().render();
+        messages.combatEnded().render();
+        messages.combatLogged().render("player_name", "Steve");
+        messages.playersCombatLogged().render("player_names", "Steve, Alex");
+        messages.combatLoggedOthers().render("count", "2");
+        messages.combatLoggedOther().render("count", "1");
+        messages.statsDumped().render("file", "stats.txt");
+        messages.reloadFailed().render();
+        messages.displayChanged().render("display", "off");
+    }
+
+    /**
+     * Gets the rendered action bar of the configured locale for a remaining combat time.
+     * Safe to call from any thread.
+     * @param time The remaining combat time in seconds.
+     * @return The rendered action bar Component.
+     */
+    @NotNull
+    public Component getActionBar(int time) {
+        ConfigSnapshot snapshot = getSnapshot();
+
+        return getActionBar(snapshot, snapshot.messages(), time);
+    }
+
+    /**
+     * Gets the rendered action bar for a remaining combat time in the language of a player's client.
+     * Safe to call from any thread.
+     * @param player The Player the action bar is for.
+     * @param time The remaining combat time in seconds.
+     * @return The rendered action bar Component.
+     */
+    @NotNull
+    public Component getActionBar(@NotNull Player player, int time) {
+        ConfigSnapshot snapshot = getSnapshot();
+
+        return getActionBar(snapshot, getMessages(snapshot, player), time);
+    }
+
+    /**
+     * Gets the pre-rendered message sent when a teleport is blocked, in the language of a player's client.
+     * @param player The Player the message is for.
+     * @return A Component
+     */
+    @NotNull
+    public Component getTeleportDenialMessage(@NotNull Player player) {
+        ConfigSnapshot snapshot = getSnapshot();
+        if(snapshot.clientLocales().isEmpty()) return snapshot.teleportPolicy().getDenialMessage();
+
+        return getMessages(snapshot, player).teleportInCombat();
+    }
+
+    /**
+     * Gets the rendered action bar of a locale for a remaining combat time.
+     * Times of the configured locale covered by the combat time are served from a table rendered at reload. Other
+     * times and other locales are rendered on demand and kept in one least-recently-used cache, bounded in entries
+     * across all locales so the number of locale files does not multiply its heap usage.
+     * @param snapshot The snapshot the messages belong to.
+     * @param messages The LocaleMessages to render with.
+     * @param time The remaining combat time in seconds.
+     * @return The rendered action bar Component.
+     */
+    @NotNull
+    private Component getActionBar(@NotNull ConfigSnapshot snapshot, @NotNull LocaleMessages messages, int time) {
+        Component[] rendered = snapshot.actionBars();
+        if(messages.id() == 0 && time >= 0 && time < rendered.length) return rendered[time];
+
+        long key = ((long) messages.id() << 32) | (time & 0xFFFFFFFFL);
+        synchronized(cachedActionBars) {
+            // Entries rendered with a previous locale are dropped the first time a newer snapshot is seen.
+            if(cachedActionBarsOwner != snapshot) {
+                cachedActionBars.clear();
+                cachedActionBarsOwner = snapshot;
+                maxCachedActionBars = getMaxCachedActionBars(snapshot.settings());
+            }
+
+            Component actionBar = cachedActionBars.get(key);
+            if(actionBar == null) {
+                actionBar = renderActionBar(messages.locale(), time);
+                cachedActionBars.put(key, actionBar);
+            }
+
+            return actionBar;
+        }
+    }
+
+    /**
+     * Gets the messages of a snapshot in the language of a player's client.
+     * @param snapshot The ConfigSnapshot
+     * @param sender The CommandSender to get the messages for.
+     * @return The LocaleMessages
+     */
+    @NotNull
+    private LocaleMessages getMessages(@NotNull ConfigSnapshot snapshot, @NotNull CommandSender sender) {
+        Map<String, LocaleMessages> localeMessages = snapshot.clientLocales();
+        if(localeMessages.isEmpty() || !(sender instanceof Player player)) return snapshot.messages();
+
+        ClientLocale clientLocale = clientLocales.get(player.getUniqueId());
+        if(clientLocale == null) {
+            clientLocale = ClientLocale.of(player.locale());
+            clientLocales.put(player.getUniqueId(), clientLocale);
+        }
+
+        LocaleMessages messages = localeMessages.get(clientLocale.tag());
+        if(messages == null) messages = localeMessages.get(clientLocale.language());
+        if(messages == null) messages = snapshot.messages();
+
+        return messages;
+    }
+
+    /**
+     * Gets the published snapshot, or the snapshot of the default locale if nothing was published yet.
+     * @return A ConfigSnapshot
+     */
+    @NotNull
+    private ConfigSnapshot getSnapshot() {
+        ConfigSnapshot snapshot = settingsManager.getSnapshot();
+        if(snapshot == null) return defaultSnapshot;
+
+        return snapshot;
+    }
+
+    /**
+     * Checks if client locales are enabled in the settings.
+     * @param settings The plugin's settings.
+     * @return true if enabled, false if not.
+     */
+    private boolean isClientLocalesEnabled(@NotNull Settings settings) {
+        return settings.clientLocales() != null && settings.clientLocales().enabled();
+    }
+
+    /**
+     * Gets how many action bars may be kept in the render cache.
+     * @param settings The plugin's settings, may be null.
+     * @return The maximum number of cached action bars.
+     */
+    private int getMaxCachedActionBars(@Nullable Settings settings) {
+        if(settings == null || settings.clientLocales() == null || settings.clientLocales().maxCachedActionBars() <= 0) {
+            return DEFAULT_MAX_CACHED_ACTION_BARS;
+        }
+
+        return settings.clientLocales().maxCachedActionBars();
     }
 
     /**
-     * Reloads the plugin's locale.
+     * Loads the plugin's locale from the locale file configured in settings.yml.
+     * @param settings The plugin's settings.
+     * @return The loaded Locale, the default locale if the file had null messages, or null if the file failed to load.
      */
-    public void reload() {
+    @Nullable
+    private Locale loadLocale(@NotNull Settings settings) {
         ComponentLogger logger = skyCombatLog.getComponentLogger();
-        locale = null;
 
         copyDefaultLocales();
 
-        Settings settings = settingsManager.getSettings();
-        if(settings == null) {
-            logger.error(FormatUtil.format("<red>Failed to load plugin's locale due to plugin settings being null.</red>"));
-            return;
-        }
         if(settings.locale() == null) {
             logger.error(FormatUtil.format("<red>Failed to load plugin's locale to use in settings.yml is null.</red>"));
-            return;
+            return null;
         }
 
         String localeString = settings.locale();
         Path path = Path.of(skyCombatLog.getDataFolder() + File.separator + "locale" + File.separator + (localeString + ".yml"));
+        if(!path.toFile().exists()) {
+            logger.error(FormatUtil.format("<red>The locale file " + localeString + ".yml does not exist.</red>"));
+            return null;
+        }
+
+        Locale locale = loadLocaleFile(path);
+        if(locale == null) return null;
+
+        return validateLocale(locale);
+    }
+
+    /**
+     * Loads every locale file other than the configured one, sorted by file name.
+     * Files that fail to load or have null messages are skipped.
+     * @param settings The plugin's settings.
+     * @return The loaded locales, keyed by file name without the extension.
+     */
+    @NotNull
+    private List<Map.Entry<String, Locale>> loadClientLocales(@NotNull Settings settings) {
+        ComponentLogger logger = skyCombatLog.getComponentLogger();
+        Path folder = skyCombatLog.getDataFolder().toPath().resolve("locale");
+
+        List<Path> paths;
+        try(Stream<Path> files = Files.list(folder)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(".yml")).sorted().toList();
+        } catch (IOException e) {
+            logger.warn(FormatUtil.format("<yellow>Failed to list the locale files, only the configured locale will be used.</yellow>"));
+            return List.of();
+        }
+
+        List<Map.Entry<String, Locale>> locales = new ArrayList<>();
+        for(Path path : paths) {
+            String fileName = path.getFileName().toString();
+            String name = fileName.substring(0, fileName.length() - ".yml".length());
+            if(name.equals(settings.locale())) continue;
+
+            Locale locale = loadLocaleFile(path);
+            if(locale == null || !isComplete(locale)) {
+                logger.warn(FormatUtil.format("<yellow>The locale file " + fileName + " failed to load or has null messages and was skipped.</yellow>"));
+                continue;
+            }
+
+            locales.add(Map.entry(name, locale));
+        }
+
+        return locales;
+    }
+
+    /**
+     * Loads a locale file.
+     * @param path The Path of the file.
+     * @return The loaded Locale or null if the file failed to load.
+     */
+    @Nullable
+    private Locale loadLocaleFile(@NotNull Path path) {
+        ComponentLogger logger = skyCombatLog.getComponentLogger();
 
         YamlConfigurationLoader loader = ConfigurationUtility.getYamlConfigurationLoader(path);
         try {
-            locale = loader.load().get(Locale.class);
+            return loader.load().get(Locale.class);
         } catch (ConfigurateException exception) {
-            throw new RuntimeException(exception);
+            logger.error(FormatUtil.format("<red>Failed to load the plugin's locale.</red>"));
+            if(exception.getMessage() != null) {
+                logger.error(FormatUtil.format(exception.getMessage()));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Pre-parses the configured locale's and every client locale's messages into a snapshot.
+     * @param settings The Settings the snapshot is built for, null for the default snapshot.
+     * @param locale The configured Locale.
+     * @param clientLocaleFiles The other loaded locales, keyed by file name without the extension.
+     * @return A ConfigSnapshot
+     */
+    @NotNull
+    private ConfigSnapshot compile(@Nullable Settings settings, @NotNull Locale locale, @NotNull List<Map.Entry<String, Locale>> clientLocaleFiles) {
+        LocaleMessages messages = compileMessages(0, locale);
+
+        Map<String, LocaleMessages> localeMessages = Map.of();
+        if(!clientLocaleFiles.isEmpty()) {
+            List<Map.Entry<String, LocaleMessages>> compiled = new ArrayList<>();
+            compiled.add(Map.entry(settings != null && settings.locale() != null ? settings.locale() : "", messages));
+            for(Map.Entry<String, Locale> entry : clientLocaleFiles) {
+                compiled.add(Map.entry(entry.getKey(), compileMessages(compiled.size(), entry.getValue())));
+            }
+
+            // Full names are registered before languages, so en_gb.yml wins over en_us.yml for en_GB clients, and the
+            // configured locale is first in line for its language.
+            Map<String, LocaleMessages> byName = new HashMap<>();
+            for(Map.Entry<String, LocaleMessages> entry : compiled) {
+                byName.put(ClientLocale.normalize(entry.getKey()), entry.getValue());
+            }
+            for(Map.Entry<String, LocaleMessages> entry : compiled) {
+                byName.putIfAbsent(ClientLocale.languageOf(ClientLocale.normalize(entry.getKey())), entry.getValue());
+            }
+            localeMessages = Map.copyOf(byName);
         }
 
-        validateLocale();
+        return new ConfigSnapshot(
+                settings,
+                messages,
+                renderActionBars(settings, locale),
+                localeMessages,
+                TeleportPolicy.compile(settings != null ? settings.teleportRules() : null, messages.teleportInCombat()),
+                settings != null ? SafeZoneIndex.compile(settings.safeZones(), skyCombatLog.getComponentLogger()) : SafeZoneIndex.EMPTY,
+                settings != null ? CombatRules.compile(settings) : CombatRules.EMPTY);
+    }
+
+    /**
+     * Pre-parses a locale's messages. Messages missing from older locale files use the defaults.
+     * @param id The id of the messages within the snapshot.
+     * @param locale The Locale to parse.
+     * @return The LocaleMessages
+     */
+    @NotNull
+    private LocaleMessages compileMessages(int id, @NotNull Locale locale) {
+        String playersCombatLogged = locale.playersCombatLogged() != null ? locale.playersCombatLogged() : DEFAULT_LOCALE.playersCombatLogged();
+        String combatLoggedOthers = locale.combatLoggedOthers() != null ? locale.combatLoggedOthers() : DEFAULT_LOCALE.combatLoggedOthers();
+        String combatLoggedOther = locale.combatLoggedOther() != null ? locale.combatLoggedOther() : DEFAULT_LOCALE.combatLoggedOther();
+        String combatLoggedAnd = locale.combatLoggedAnd() != null ? locale.combatLoggedAnd() : DEFAULT_LOCALE.combatLoggedAnd();
+        String statsDumped = locale.statsDumped() != null ? locale.statsDumped() : DEFAULT_LOCALE.statsDumped();
+        String reloadFailed = locale.reloadFailed() != null ? locale.reloadFailed() : DEFAULT_LOCALE.reloadFailed();
+        String inCombat = locale.inCombat() != null ? locale.inCombat() : DEFAULT_LOCALE.inCombat();
+        String combatEnded = locale.combatEnded() != null ? locale.combatEnded() : DEFAULT_LOCALE.combatEnded();
+        String displayChanged = locale.displayChanged() != null ? locale.displayChanged() : DEFAULT_LOCALE.displayChanged();
+
+        return new LocaleMessages(
+                id,
+                locale,
+                ComponentTemplate.parse(locale.prefix()),
+                ComponentTemplate.parse(locale.prefix() + locale.reload()),
+                ComponentTemplate.parse(locale.prefix() + inCombat),
+                ComponentTemplate.parse(locale.prefix() + combatEnded),
+                ComponentTemplate.parse(locale.prefix() + locale.playerCombatLogged()),
+                ComponentTemplate.parse(locale.prefix() + playersCombatLogged),
+                ComponentTemplate.parse(combatLoggedOthers),
+                ComponentTemplate.parse(combatLoggedOther),
+                FormatUtil.format(combatLoggedAnd),
+                ComponentTemplate.parse(locale.prefix() + statsDumped),
+                ComponentTemplate.parse(locale.prefix() + reloadFailed),
+                FormatUtil.format(locale.prefix() + locale.teleportInCombat()),
+                ComponentTemplate.parse(locale.prefix() + displayChanged));
+    }
+
+    /**
+     * Renders the action bar for every time from 0 to the longest configured combat time, capped to a sane table size.
+     * Times that render to the same text share one Component instance, so callers can detect unchanged action bars by
+     * identity.
+     * @param settings The plugin's settings.
+     * @param locale The Locale to render with.
+     * @return The rendered action bars, indexed by seconds.
+     */
+    @NotNull
+    private Component[] renderActionBars(@Nullable Settings settings, @NotNull Locale locale) {
+        int combatTime = settings != null ? Math.max(0, settings.combatTime()) : 0;
+        if(settings != null && settings.worldCombatTimes() != null) {
+            for(Integer worldCombatTime : settings.worldCombatTimes().values()) {
+                if(worldCombatTime != null) combatTime = Math.max(combatTime, worldCombatTime);
+            }
+        }
+        int size = Math.min(combatTime, MAX_PRECOMPILED_ACTION_BARS) + 1;
+
+        Component[] rendered = new Component[size];
+        Map<Component, Component> distinct = new HashMap<>();
+        for(int time = 0; time < size; time++) {
+            rendered[time] = distinct.computeIfAbsent(renderActionBar(locale, time), component -> component);
+        }
+
+        return rendered;
+    }
+
+    /**
+     * Renders the action bar for a remaining combat time.
+     * @param locale The Locale to render with.
+     * @param time The remaining combat time in seconds.
+     * @return The rendered action bar Component.
+     */
+    @NotNull
+    private Component renderActionBar(@NotNull Locale locale, int time) {
+        List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("time", getTimeMessage(locale, time)));
+
+        return FormatUtil.format(locale.actionBar(), placeholders);
     }
 
     /**
@@ -128,30 +581,54 @@ public class LocaleManager {
 
     /**
      * Checks if the locale configuration has any null-values.
+     * @param locale The loaded Locale.
+     * @return The Locale if valid, the default locale otherwise.
      */
-    private void validateLocale() {
-        if(locale == null) return;
-
-        if(locale.configVersion() == null
-                || locale.prefix() == null
-                || locale.reload() == null
-                || locale.playerCombatLogged() == null
-                || locale.teleportInCombat() == null) {
-            locale = null;
-
+    @NotNull
+    private Locale validateLocale(@Nullable Locale locale) {
+        if(locale == null || !isComplete(locale)) {
             skyCombatLog.getComponentLogger().warn(FormatUtil.format("<yellow>One of the plugin's locale messages was null. Double-check your configuration."));
             skyCombatLog.getComponentLogger().info(FormatUtil.format("<white>The plugin will use the default config until the issue is resolved.</white>"));
+
+            return DEFAULT_LOCALE;
         }
+
+        return locale;
+    }
+
+    /**
+     * Checks if a locale has every message that has no default.
+     * @param locale The loaded Locale.
+     * @return true if complete, false if not.
+     */
+    private boolean isComplete(@NotNull Locale locale) {
+        return locale.configVersion() != null
+                && locale.prefix() != null
+                && locale.reload() != null
+                && locale.playerCombatLogged() != null
+                && locale.teleportInCombat() != null
+                && locale.actionBar() != null
+                && locale.timeMessage() != null;
     }
 
     /**
-     * Gets the time message to display in the boss bar.
+     * Gets the time message of the configured locale for a time.
      * @param time The time in seconds.
      * @return A String containing the time message.
      */
     @NotNull
     public String getTimeMessage(int time) {
-        Locale locale = this.getLocale();
+        return getTimeMessage(getLocale(), time);
+    }
+
+    /**
+     * Gets the time message for a specific locale.
+     * @param locale The Locale to render with.
+     * @param time The time in seconds.
+     * @return A String containing the time message.
+     */
+    @NotNull
+    private String getTimeMessage(@NotNull Locale locale, int time) {
         Time timeRecord = FormatUtil.millisToTime(time * 1000L);
 
         List<TagResolver.Single> placeholders = List.of(
@@ -242,4 +719,43 @@ public class LocaleManager {
         stringBuilder.append(timeMessage.suffix());
         return stringBuilder;
     }
+
+    /**
+     * The language of a player's client, normalized to match locale file names.
+     * @param tag The lower-case locale, e.g. de_de.
+     * @param language The lower-case language, e.g. de.
+     */
+    private record ClientLocale(@NotNull String tag, @NotNull String language) {
+        /**
+         * Normalizes a client's locale.
+         * @param locale The locale of the client.
+         * @return A ClientLocale
+         */
+        @NotNull
+        private static ClientLocale of(@NotNull java.util.Locale locale) {
+            String tag = normalize(locale.toString());
+            return new ClientLocale(tag, languageOf(tag));
+        }
+
+        /**
+         * Normalizes a locale name to lower case with an underscore separator.
+         * @param name The locale name, e.g. de_DE or de-DE.
+         * @return The normalized name.
+         */
+        @NotNull
+        private static String normalize(@NotNull String name) {
+            return name.replace('-', '_').toLowerCase(java.util.Locale.ROOT);
+        }
+
+        /**
+         * Gets the language of a normalized locale name.
+         * @param tag The normalized name.
+         * @return The language.
+         */
+        @NotNull
+        private static String languageOf(@NotNull String tag) {
+            int separator = tag.indexOf('_');
+            return separator == -1 ? tag : tag.substring(0, separator);
+        }
+    }
 }
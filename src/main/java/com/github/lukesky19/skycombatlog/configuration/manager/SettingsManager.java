@@ -18,13 +18,16 @@
 package com.github.lukesky19.skycombatlog.configuration.manager;
 
 import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.record.ConfigSnapshot;
 import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.policy.CombatRules;
+import com.github.lukesky19.skycombatlog.zone.SafeZoneIndex;
 import com.github.lukesky19.skylib.config.ConfigurationUtility;
 import com.github.lukesky19.skylib.format.FormatUtil;
 import com.github.lukesky19.skylib.libs.configurate.ConfigurateException;
-import com.github.lukesky19.skylib.libs.configurate.serialize.SerializationException;
 import com.github.lukesky19.skylib.libs.configurate.yaml.YamlConfigurationLoader;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
@@ -32,10 +35,11 @@ import java.nio.file.Path;
 
 /**
  * This class manages everything related to handling the plugin's settings.
+ * It also holds the published {@link ConfigSnapshot}, so settings and locale messages are always swapped together.
  */
 public class SettingsManager {
     private final SkyCombatLog skyCombatLog;
-    private Settings settings;
+    private volatile ConfigSnapshot snapshot;
 
     /**
      * Constructor
@@ -52,15 +56,61 @@ public class SettingsManager {
      */
     @Nullable
     public Settings getSettings() {
-        return settings;
+        ConfigSnapshot current = snapshot;
+        if(current == null) return null;
+
+        return current.settings();
+    }
+
+    /**
+     * Gets the safe zones compiled with the published settings.
+     * @return A SafeZoneIndex, empty if no settings were published yet.
+     */
+    @NotNull
+    public SafeZoneIndex getSafeZones() {
+        ConfigSnapshot current = snapshot;
+        if(current == null) return SafeZoneIndex.EMPTY;
+
+        return current.safeZones();
     }
 
     /**
-     * A method to reload the plugin's settings config.
+     * Gets the combat rules compiled with the published settings.
+     * @return A CombatRules, empty if no settings were published yet.
      */
-    public void reload() {
+    @NotNull
+    public CombatRules getCombatRules() {
+        ConfigSnapshot current = snapshot;
+        if(current == null) return CombatRules.EMPTY;
+
+        return current.combatRules();
+    }
+
+    /**
+     * Gets the published configuration snapshot.
+     * @return The ConfigSnapshot or null if none was published yet.
+     */
+    @Nullable
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes a configuration snapshot. Readers on any thread see either the previous or the new snapshot as a whole.
+     * @param snapshot The ConfigSnapshot to publish.
+     */
+    public void publish(@NotNull ConfigSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Loads and validates the plugin's settings config without publishing them.
+     * Safe to call off the main thread.
+     * @return The loaded Settings or null if they failed to load or are invalid.
+     */
+    @Nullable
+    public Settings load() {
         ComponentLogger logger = skyCombatLog.getComponentLogger();
-        settings = null;
 
         Path path = Path.of(skyCombatLog.getDataFolder() + File.separator + "settings.yml");
         if(!path.toFile().exists()) {
@@ -68,15 +118,26 @@ public class SettingsManager {
         }
 
         YamlConfigurationLoader loader = ConfigurationUtility.getYamlConfigurationLoader(path);
+        Settings settings;
         try {
             settings = loader.load().get(Settings.class);
-        } catch (SerializationException e) {
-            throw new RuntimeException(e);
         } catch (ConfigurateException configurateException) {
             logger.error(FormatUtil.format("<red>Failed to load plugin settings.</red>"));
             if(configurateException.getMessage() != null) {
                 logger.error(FormatUtil.format(configurateException.getMessage()));
             }
+            return null;
+        }
+
+        if(settings == null || settings.configVersion() == null || settings.locale() == null) {
+            logger.error(FormatUtil.format("<red>One of the plugin's settings was null. Double-check your configuration.</red>"));
+            return null;
         }
+        if(settings.combatTime() <= 0) {
+            logger.error(FormatUtil.format("<red>The combat-time in settings.yml must be greater than 0.</red>"));
+            return null;
+        }
+
+        return settings;
     }
 }
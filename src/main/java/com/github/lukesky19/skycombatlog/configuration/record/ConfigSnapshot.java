@@ -0,0 +1,49 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.configuration.record;
+
+import com.github.lukesky19.skycombatlog.policy.CombatRules;
+import com.github.lukesky19.skycombatlog.policy.TeleportPolicy;
+import com.github.lukesky19.skycombatlog.zone.SafeZoneIndex;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * An immutable view of the plugin's configuration, built off the main thread and published as a whole on reload.
+ * Readers always see settings and locale messages that were loaded together.
+ * @param settings The plugin's settings. Null if settings.yml has never loaded successfully.
+ * @param messages The pre-parsed messages of the configured locale.
+ * @param actionBars The action bars of the configured locale rendered for every remaining time covered by the combat
+ *                   time, indexed by seconds.
+ * @param clientLocales The pre-parsed messages of every other locale file, keyed by lower-case locale name (e.g. de_de)
+ *                      and by language (e.g. de). Empty unless client locales are enabled.
+ * @param teleportPolicy The teleport rules compiled with their pre-rendered denial message.
+ * @param safeZones The safe zones indexed by world and chunk.
+ * @param combatRules The combat time per world.
+ */
+public record ConfigSnapshot(
+        @Nullable Settings settings,
+        @NotNull LocaleMessages messages,
+        @NotNull Component[] actionBars,
+        @NotNull Map<String, LocaleMessages> clientLocales,
+        @NotNull TeleportPolicy teleportPolicy,
+        @NotNull SafeZoneIndex safeZones,
+        @NotNull CombatRules combatRules) {}
@@ -30,6 +30,13 @@ import com.github.lukesky19.skylib.libs.configurate.objectmapping.ConfigSerializ
  * @param teleportInCombat The message sent when a player tries to teleport in combat.
  * @param actionBar The action bar message to send when in combat.
  * @param timeMessage Allows formatting the time message in the action bar.
+ * @param playersCombatLogged The message sent when multiple players combat log at once.
+ * @param combatLoggedOthers Appended to the list of names when too many players combat log at once to list them all.
+ * @param combatLoggedOther Appended to the list of names instead of combatLoggedOthers when only one player is not listed.
+ * @param combatLoggedAnd Put between the last two names when every player that combat logged is listed.
+ * @param statsDumped The message sent when the plugin's statistics were written to a file.
+ * @param reloadFailed The message sent when a reload failed and the previous configuration is kept.
+ * @param displayChanged The message sent when a player picked how their combat timer is shown.
  */
 @ConfigSerializable
 public record Locale(
@@ -41,7 +48,14 @@ public record Locale(
         String playerCombatLogged,
         String teleportInCombat,
         String actionBar,
-        TimeMessage timeMessage) {
+        TimeMessage timeMessage,
+        String playersCombatLogged,
+        String combatLoggedOthers,
+        String combatLoggedOther,
+        String combatLoggedAnd,
+        String statsDumped,
+        String reloadFailed,
+        String displayChanged) {
     /**
      *
      * @param prefix The text to display before the first time unit.
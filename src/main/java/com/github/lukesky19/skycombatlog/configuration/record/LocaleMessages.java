@@ -0,0 +1,57 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.configuration.record;
+
+import com.github.lukesky19.skycombatlog.util.ComponentTemplate;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The messages of one locale file, pre-parsed into templates at reload.
+ * @param id An id unique within the snapshot the messages belong to, 0 for the configured locale.
+ * @param locale The locale the messages were parsed from.
+ * @param prefix The prefix put before the plugin's messages.
+ * @param reload The message, including the prefix, sent when the plugin reloaded.
+ * @param inCombat The message, including the prefix, for a player that entered combat.
+ * @param combatEnded The message, including the prefix, for a player that left combat.
+ * @param combatLogged The message, including the prefix, sent when a single player combat logs.
+ * @param playersCombatLogged The message, including the prefix, sent when multiple players combat log at once.
+ * @param combatLoggedOthers The text appended to the list of names when not every player is listed.
+ * @param combatLoggedOther The text appended to the list of names when all but one player is listed.
+ * @param combatLoggedAnd The text put between the last two names when every player is listed.
+ * @param statsDumped The message, including the prefix, sent when the plugin's statistics were written to a file.
+ * @param reloadFailed The message, including the prefix, sent when a reload failed.
+ * @param teleportInCombat The message, including the prefix, sent when a teleport is blocked.
+ * @param displayChanged The message, including the prefix, sent when a player picked how their combat timer is shown.
+ */
+public record LocaleMessages(
+        int id,
+        @NotNull Locale locale,
+        @NotNull ComponentTemplate prefix,
+        @NotNull ComponentTemplate reload,
+        @NotNull ComponentTemplate inCombat,
+        @NotNull ComponentTemplate combatEnded,
+        @NotNull ComponentTemplate combatLogged,
+        @NotNull ComponentTemplate playersCombatLogged,
+        @NotNull ComponentTemplate combatLoggedOthers,
+        @NotNull ComponentTemplate combatLoggedOther,
+        @NotNull Component combatLoggedAnd,
+        @NotNull ComponentTemplate statsDumped,
+        @NotNull ComponentTemplate reloadFailed,
+        @NotNull Component teleportInCombat,
+        @NotNull ComponentTemplate displayChanged) {}
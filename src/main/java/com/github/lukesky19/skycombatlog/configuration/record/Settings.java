@@ -17,15 +17,156 @@
 */
 package com.github.lukesky19.skycombatlog.configuration.record;
 
+import com.github.lukesky19.skycombatlog.attribution.KillCreditMode;
+import com.github.lukesky19.skycombatlog.display.DisplayMode;
+import com.github.lukesky19.skycombatlog.punishment.DeferredPolicy;
+import com.github.lukesky19.skycombatlog.punishment.PunishmentAction;
+import com.github.lukesky19.skycombatlog.replication.TransportType;
+import com.github.lukesky19.skycombatlog.tracker.ExecutionMode;
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import com.github.lukesky19.skycombatlog.zone.ZoneShape;
 import com.github.lukesky19.skylib.libs.configurate.objectmapping.ConfigSerializable;
+import org.bukkit.event.player.PlayerTeleportEvent;
 
 import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Plugin settings
  * @param configVersion The file's config version
  * @param locale The locale to use
  * @param combatTime The combat time to apply to players in combat.
+ * @param executionMode The threading model used to track combat timers. Defaults to BUKKIT, always REGIONIZED on Folia.
+ * @param combatStore The data structure combat timers are stored in when using the BUKKIT execution mode.
+ * @param combatJournal Whether combat state is journaled to disk and restored after a restart or crash.
+ * @param minimumDamage The minimum final damage a player-vs-player hit must deal to tag the players.
+ * @param retagCooldownTicks The minimum number of ticks between refreshes of an already tagged player's timer.
+ * @param watchFiles Whether edits to settings.yml or the locale files reload the plugin automatically.
+ * @param actionBarKeepAliveTicks How often an unchanged action bar is re-sent so it does not fade. 0 sends every update,
+ *                                missing uses 40.
+ * @param timerScheduling How the BUKKIT execution mode spreads per-second updates over the ticks of a second.
+ * @param teleportRules Which teleports are blocked for players in combat.
+ * @param safeZones Areas where player-vs-player hits do not tag, keyed by zone name.
+ * @param replication How combat state is replicated to the other servers of a proxy network.
+ * @param killCredit Who is credited with the kill when a player combat logs.
+ * @param clientLocales Whether players are sent messages in their client's language.
+ * @param punishment How players that log out in combat are punished.
+ * @param worldCombatTimes The combat time per world, keyed by world name. Replaces combatTime in that world, 0 disables combat.
+ * @param display How the combat timer is shown to players that did not pick a display mode themselves.
  */
 @ConfigSerializable
-public record Settings(@Nullable String configVersion, @Nullable String locale, int combatTime) {}
+public record Settings(
+        @Nullable String configVersion,
+        @Nullable String locale,
+        int combatTime,
+        @Nullable ExecutionMode executionMode,
+        @Nullable StoreType combatStore,
+        boolean combatJournal,
+        double minimumDamage,
+        int retagCooldownTicks,
+        boolean watchFiles,
+        @Nullable Integer actionBarKeepAliveTicks,
+        @Nullable TimerScheduling timerScheduling,
+        @Nullable TeleportRules teleportRules,
+        @Nullable Map<String, SafeZone> safeZones,
+        @Nullable Replication replication,
+        @Nullable KillCredit killCredit,
+        @Nullable ClientLocales clientLocales,
+        @Nullable Punishment punishment,
+        @Nullable Map<String, Integer> worldCombatTimes,
+        @Nullable DisplayMode display) {
+    /**
+     * Which teleports are blocked for players in combat.
+     * @param blockedCauses The teleport causes blocked in worlds without their own entry.
+     * @param worlds The teleport causes blocked per world, keyed by world name. Replaces blockedCauses for that world.
+     * @param denialMessageCooldownTicks The minimum number of ticks between denial messages to the same player.
+     */
+    @ConfigSerializable
+    public record TeleportRules(
+            @Nullable List<PlayerTeleportEvent.TeleportCause> blockedCauses,
+            @Nullable Map<String, List<PlayerTeleportEvent.TeleportCause>> worlds,
+            int denialMessageCooldownTicks) {}
+
+    /**
+     * An area where player-vs-player hits do not tag.
+     * @param world The name of the world the zone is in.
+     * @param shape The shape of the zone.
+     * @param points Two opposite corners for a cuboid, or the corners in order for a polygon.
+     * @param minY The lowest y coordinate inside the zone.
+     * @param maxY The highest y coordinate inside the zone.
+     */
+    @ConfigSerializable
+    public record SafeZone(
+            @Nullable String world,
+            @Nullable ZoneShape shape,
+            @Nullable List<Point> points,
+            double minY,
+            double maxY) {}
+
+    /**
+     * A corner of a safe zone.
+     * @param x The x coordinate.
+     * @param z The z coordinate.
+     */
+    @ConfigSerializable
+    public record Point(double x, double z) {}
+
+    /**
+     * How combat state is replicated to the other servers of a proxy network.
+     * @param enabled Whether combat state is replicated.
+     * @param transport The transport updates are sent through.
+     * @param directory The directory shared by every server, used by the FILE transport.
+     * @param transferGraceTicks How long a player in combat who left has to show up on another server.
+     */
+    @ConfigSerializable
+    public record Replication(
+            boolean enabled,
+            @Nullable TransportType transport,
+            @Nullable String directory,
+            int transferGraceTicks) {}
+
+    /**
+     * Who is credited with the kill when a player combat logs.
+     * @param mode Which attacker is credited.
+     * @param rewardCommand A console command run for the credited attacker, with the attacker and victim placeholders.
+     *                      Empty or null to not run a command.
+     */
+    @ConfigSerializable
+    public record KillCredit(
+            @Nullable KillCreditMode mode,
+            @Nullable String rewardCommand) {}
+
+    /**
+     * Whether players are sent messages in their client's language.
+     * @param enabled Whether every locale file is loaded and picked by each player's client language.
+     * @param maxCachedActionBars The maximum number of action bars rendered on demand that are kept, across all locales.
+     */
+    @ConfigSerializable
+    public record ClientLocales(
+            boolean enabled,
+            int maxCachedActionBars) {}
+
+    /**
+     * How players that log out in combat are punished.
+     * @param actions The actions carried out, in order.
+     * @param commands The console commands run by the COMMAND action, with the player placeholder.
+     * @param tempBanMinutes How long the TEMP_BAN action bans the player for.
+     * @param tempBanReason The reason shown to a player banned by the TEMP_BAN action.
+     * @param tickBudgetMicros The time punishments may take per tick before the rest is put off.
+     * @param massDisconnectThreshold How many disconnects within the window count as a mass disconnect.
+     * @param massDisconnectWindowTicks The window disconnects are counted in.
+     * @param deferredPolicy What happens instead of the actions during a mass disconnect or a shutdown.
+     */
+    @ConfigSerializable
+    public record Punishment(
+            @Nullable List<PunishmentAction> actions,
+            @Nullable List<String> commands,
+            int tempBanMinutes,
+            @Nullable String tempBanReason,
+            int tickBudgetMicros,
+            int massDisconnectThreshold,
+            int massDisconnectWindowTicks,
+            @Nullable DeferredPolicy deferredPolicy) {}
+}
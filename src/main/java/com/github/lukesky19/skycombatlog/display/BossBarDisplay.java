@@ -0,0 +1,171 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.display;
+
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.configuration.record.ConfigSnapshot;
+import net.kyori.adventure.bossbar.BossBar;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Shows combat timers in boss bars shared between players.
+ * There is one BossBar per locale, combat time and remaining second, created with its title and progress the first time
+ * it is needed and never updated. Progress is measured against the combat time of the world the player is in. Each second a player is moved from the bar of their previous time to the bar of their new
+ * time, so no bar is created or updated per player.
+ * The bars are rebuilt after a reload, players move over to the new ones on their next update.
+ */
+public class BossBarDisplay {
+    private static final int TICKS_PER_SECOND = 20;
+    private static final BossBar[][] EMPTY_POOL = new BossBar[0][];
+
+    private final SettingsManager settingsManager;
+    private final LocaleManager localeManager;
+    private final Map<UUID, BossBar> shownBars = new ConcurrentHashMap<>();
+
+    private final Object poolLock = new Object();
+    // Guarded by poolLock. Keyed by the full combat time in seconds, then indexed by the id of the locale's messages and
+    // by the remaining seconds.
+    private @Nullable ConfigSnapshot poolOwner;
+    private final Map<Integer, BossBar[][]> pools = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param settingsManager A SettingsManager instance.
+     * @param localeManager A LocaleManager instance.
+     */
+    public BossBarDisplay(SettingsManager settingsManager, LocaleManager localeManager) {
+        this.settingsManager = settingsManager;
+        this.localeManager = localeManager;
+    }
+
+    /**
+     * Shows a player the shared boss bar of their remaining time, moving them off the bar they were shown before.
+     * Must be called on the thread that owns the player.
+     * @param player The Player
+     * @param time The player's remaining combat time in seconds.
+     */
+    public void show(@NotNull Player player, int time) {
+        BossBar bar = getBar(player, Math.max(0, time));
+        BossBar previous = shownBars.put(player.getUniqueId(), bar);
+        if(previous == bar) return;
+
+        // Shared bars are shown and hidden from every region thread on Folia, so changes to their viewers are serialized.
+        if(previous != null) {
+            synchronized(previous) {
+                player.hideBossBar(previous);
+            }
+        }
+
+        synchronized(bar) {
+            player.showBossBar(bar);
+        }
+    }
+
+    /**
+     * Takes a player off the boss bar they are shown.
+     * @param uuid The UUID of the player.
+     * @param player The Player if available, otherwise null.
+     */
+    public void hide(@NotNull UUID uuid, @Nullable Player player) {
+        BossBar previous = shownBars.remove(uuid);
+        if(previous == null || player == null) return;
+
+        synchronized(previous) {
+            player.hideBossBar(previous);
+        }
+    }
+
+    /**
+     * Takes every player off the boss bar they are shown.
+     * @param players Looks up a Player by UUID, returning null if they are offline.
+     */
+    public void hideAll(@NotNull Function<UUID, Player> players) {
+        for(UUID uuid : shownBars.keySet()) {
+            hide(uuid, players.apply(uuid));
+        }
+    }
+
+    /**
+     * Forgets the boss bars of players that are no longer in combat.
+     * @param isTagged Checks if a player, by UUID, is still in combat.
+     */
+    public void sweep(@NotNull Predicate<UUID> isTagged) {
+        shownBars.keySet().removeIf(uuid -> !isTagged.test(uuid));
+    }
+
+    /**
+     * Gets the shared boss bar of a remaining time in the language of a player's client and for the combat time of their
+     * world, creating it if needed.
+     * @param player The Player the bar is for.
+     * @param time The remaining combat time in seconds.
+     * @return The BossBar
+     */
+    @NotNull
+    private BossBar getBar(@NotNull Player player, int time) {
+        ConfigSnapshot snapshot = settingsManager.getSnapshot();
+        int id = localeManager.getMessages(player).id();
+        int fullSeconds = (int) Math.max(1L, settingsManager.getCombatRules().getDurationTicks(player.getWorld()) / TICKS_PER_SECOND);
+
+        synchronized(poolLock) {
+            if(poolOwner != snapshot) {
+                poolOwner = snapshot;
+                pools.clear();
+            }
+
+            BossBar[][] pool = pools.getOrDefault(fullSeconds, EMPTY_POOL);
+            if(id >= pool.length) {
+                pool = Arrays.copyOf(pool, id + 1);
+                pools.put(fullSeconds, pool);
+            }
+
+            BossBar[] bars = pool[id];
+            if(bars == null || time >= bars.length) {
+                bars = bars == null ? new BossBar[Math.max(fullSeconds, time) + 1] : Arrays.copyOf(bars, time + 1);
+                pool[id] = bars;
+            }
+
+            BossBar bar = bars[time];
+            if(bar == null) {
+                float progress = Math.min(1.0F, (float) time / fullSeconds);
+                bar = BossBar.bossBar(localeManager.getActionBar(player, time), progress, BossBar.Color.RED, BossBar.Overlay.PROGRESS);
+                bars[time] = bar;
+            }
+
+            return bar;
+        }
+    }
+
+    /**
+     * Gets the number of players shown a boss bar.
+     * @return The number of players shown a boss bar.
+     */
+    public int size() {
+        return shownBars.size();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called when a player that was not in combat is about to be put into combat.
+ * Cancelling it leaves the player out of combat.
+ */
+public class CombatEnterEvent extends PlayerEvent implements Cancellable {
+    private static final HandlerList HANDLER_LIST = new HandlerList();
+
+    private final long durationTicks;
+    private boolean cancelled;
+
+    /**
+     * Constructor
+     * @param player The Player entering combat.
+     * @param durationTicks How long the player will be in combat for, in ticks.
+     */
+    public CombatEnterEvent(@NotNull Player player, long durationTicks) {
+        super(player);
+        this.durationTicks = durationTicks;
+    }
+
+    /**
+     * Gets how long the player will be in combat for.
+     * @return The duration in ticks.
+     */
+    public long getDurationTicks() {
+        return durationTicks;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Gets the HandlerList of this event.
+     * @return The HandlerList
+     */
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Checks if any listener is registered, so the event is only constructed when someone listens to it.
+     * @return true if a listener is registered, false if not.
+     */
+    public static boolean hasListeners() {
+        return HANDLER_LIST.getRegisteredListeners().length > 0;
+    }
+}
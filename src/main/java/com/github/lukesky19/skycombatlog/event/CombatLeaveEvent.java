@@ -0,0 +1,112 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Called when a player leaves combat.
+ */
+public class CombatLeaveEvent extends Event {
+    private static final HandlerList HANDLER_LIST = new HandlerList();
+
+    private final UUID uuid;
+    private final @Nullable Player player;
+    private final Reason reason;
+
+    /**
+     * Why a player left combat.
+     */
+    public enum Reason {
+        /**
+         * The player's combat timer ran out.
+         */
+        EXPIRED,
+        /**
+         * The player was taken out of combat, e.g. because they died or combat logged.
+         */
+        REMOVED,
+        /**
+         * The player left the server in combat and was handed off to the rest of the network.
+         */
+        HANDED_OFF
+    }
+
+    /**
+     * Constructor
+     * @param uuid The UUID of the player.
+     * @param player The Player if online, otherwise null.
+     * @param reason Why the player left combat.
+     */
+    public CombatLeaveEvent(@NotNull UUID uuid, @Nullable Player player, @NotNull Reason reason) {
+        this.uuid = uuid;
+        this.player = player;
+        this.reason = reason;
+    }
+
+    /**
+     * Gets the UUID of the player.
+     * @return The UUID of the player.
+     */
+    public @NotNull UUID getUniqueId() {
+        return uuid;
+    }
+
+    /**
+     * Gets the player.
+     * @return The Player if online, otherwise null.
+     */
+    public @Nullable Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets why the player left combat.
+     * @return The Reason
+     */
+    public @NotNull Reason getReason() {
+        return reason;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Gets the HandlerList of this event.
+     * @return The HandlerList
+     */
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Checks if any listener is registered, so the event is only constructed when someone listens to it.
+     * @return true if a listener is registered, false if not.
+     */
+    public static boolean hasListeners() {
+        return HANDLER_LIST.getRegisteredListeners().length > 0;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Called when a player is about to be punished for logging out in combat.
+ * Cancelling it lets the player go unpunished.
+ */
+public class CombatLogEvent extends Event implements Cancellable {
+    private static final HandlerList HANDLER_LIST = new HandlerList();
+
+    private final UUID uuid;
+    private final String playerName;
+    private final @Nullable Player player;
+    private boolean cancelled;
+
+    /**
+     * Constructor
+     * @param uuid The UUID of the player.
+     * @param playerName The name of the player.
+     * @param player The Player while they are still on this server, null if they were handed off to the network and
+     *               did not show up on another server in time.
+     */
+    public CombatLogEvent(@NotNull UUID uuid, @NotNull String playerName, @Nullable Player player) {
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.player = player;
+    }
+
+    /**
+     * Gets the UUID of the player.
+     * @return The UUID of the player.
+     */
+    public @NotNull UUID getUniqueId() {
+        return uuid;
+    }
+
+    /**
+     * Gets the name of the player.
+     * @return The name of the player.
+     */
+    public @NotNull String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the player.
+     * @return The Player while they are still on this server, otherwise null.
+     */
+    public @Nullable Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Gets the HandlerList of this event.
+     * @return The HandlerList
+     */
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Checks if any listener is registered, so the event is only constructed when someone listens to it.
+     * @return true if a listener is registered, false if not.
+     */
+    public static boolean hasListeners() {
+        return HANDLER_LIST.getRegisteredListeners().length > 0;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called when a player already in combat has their combat timer refreshed by another hit.
+ * Called at most once per player per tick, however many hits the player takes in that tick.
+ */
+public class CombatRefreshEvent extends PlayerEvent {
+    private static final HandlerList HANDLER_LIST = new HandlerList();
+
+    private final long durationTicks;
+
+    /**
+     * Constructor
+     * @param player The Player whose combat timer was refreshed.
+     * @param durationTicks How long the player is now in combat for, in ticks.
+     */
+    public CombatRefreshEvent(@NotNull Player player, long durationTicks) {
+        super(player);
+        this.durationTicks = durationTicks;
+    }
+
+    /**
+     * Gets how long the player is now in combat for.
+     * @return The duration in ticks.
+     */
+    public long getDurationTicks() {
+        return durationTicks;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Gets the HandlerList of this event.
+     * @return The HandlerList
+     */
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLER_LIST;
+    }
+
+    /**
+     * Checks if any listener is registered, so the event is only constructed when someone listens to it.
+     * @return true if a listener is registered, false if not.
+     */
+    public static boolean hasListeners() {
+        return HANDLER_LIST.getRegisteredListeners().length > 0;
+    }
+}
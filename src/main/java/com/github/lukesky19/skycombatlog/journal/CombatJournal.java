@@ -0,0 +1,395 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.journal;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skylib.format.FormatUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A crash-safe, append-only journal of combat state written through a MappedByteBuffer.
+ * Callers only record the latest state of a player, a background thread writes it once a tick, flushes to disk and
+ * compacts the journal, so no disk I/O or fsync happens on the main or region threads.
+ * Records are coalesced per player like in the {@link com.github.lukesky19.skycombatlog.replication.CombatReplicator},
+ * so however many times a player is hit in a tick, only their latest tag state and latest kill state are written.
+ */
+public class CombatJournal {
+    private static final int MAGIC = 0x53434C4A; // SCLJ
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int INITIAL_CAPACITY = 1024 * 1024;
+    private static final int MAX_PENDING_TAGS = 65536;
+    private static final long DRAIN_INTERVAL_MILLIS = 50L;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000L;
+    private static final long COMPACT_INTERVAL_MILLIS = 5L * 60L * 1000L;
+
+    private final SkyCombatLog skyCombatLog;
+    private final CombatStats combatStats;
+    private final Path path;
+    // Guarded by this. Tag state (tag, refresh, expire) and kill state (pending kill, kill cleared) coalesce separately.
+    // The writer thread swaps them with the draining maps, so recording never waits on a write.
+    private LinkedHashMap<UUID, PendingRecord> queuedTags = new LinkedHashMap<>();
+    private LinkedHashMap<UUID, PendingRecord> queuedKills = new LinkedHashMap<>();
+    private int droppedRefreshes;
+    // Only touched by the writer thread.
+    private LinkedHashMap<UUID, PendingRecord> drainingTags = new LinkedHashMap<>();
+    private LinkedHashMap<UUID, PendingRecord> drainingKills = new LinkedHashMap<>();
+    // Only touched by the writer thread once started.
+    private final Map<UUID, Long> tags = new HashMap<>();
+    private final Map<UUID, Long> pendingKills = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private int capacity = INITIAL_CAPACITY;
+    private Thread writerThread;
+    private volatile boolean running;
+    private boolean dirty;
+
+    /**
+     * The latest state of a player waiting to be written. Updated in place while it waits.
+     */
+    private static final class PendingRecord {
+        private JournalRecord.Type type;
+        private long expiry;
+    }
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     * @param combatStats The CombatStats to count dropped records in.
+     */
+    public CombatJournal(SkyCombatLog skyCombatLog, CombatStats combatStats) {
+        this.skyCombatLog = skyCombatLog;
+        this.combatStats = combatStats;
+        this.path = skyCombatLog.getDataFolder().toPath().resolve("combat.journal");
+    }
+
+    /**
+     * Replays the journal on disk into the in-memory state, dropping anything that has already expired.
+     * Must be called before {@link #start()}.
+     */
+    public void replay() {
+        tags.clear();
+        pendingKills.clear();
+        if(!Files.exists(path)) return;
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer readBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(readBuffer.remaining() < HEADER_BYTES || readBuffer.getInt(0) != MAGIC || readBuffer.getInt(4) != VERSION) {
+                skyCombatLog.getComponentLogger().warn(FormatUtil.format("<yellow>Ignoring an unreadable combat journal.</yellow>"));
+                return;
+            }
+
+            int position = HEADER_BYTES;
+            while(position + JournalRecord.BYTES <= readBuffer.limit()) {
+                JournalRecord.Type type = JournalRecord.Type.fromId(readBuffer.get(position));
+                if(type == null) break;
+
+                UUID uuid = new UUID(readBuffer.getLong(position + 8), readBuffer.getLong(position + 16));
+                apply(type, uuid, readBuffer.getLong(position + 24));
+                position += JournalRecord.BYTES;
+            }
+        } catch (IOException e) {
+            skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to read the combat journal.</red>"));
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        tags.values().removeIf(expiry -> expiry <= now);
+        pendingKills.values().removeIf(expiry -> expiry <= now);
+    }
+
+    /**
+     * Gets the combat tags restored by {@link #replay()}.
+     * @return A map of player UUIDs to the epoch millisecond their combat ends at.
+     */
+    @NotNull
+    public Map<UUID, Long> getRestoredTags() {
+        return Map.copyOf(tags);
+    }
+
+    /**
+     * Gets the pending kills restored by {@link #replay()}.
+     * @return A map of player UUIDs to the epoch millisecond the pending kill expires at.
+     */
+    @NotNull
+    public Map<UUID, Long> getRestoredKills() {
+        return Map.copyOf(pendingKills);
+    }
+
+    /**
+     * Starts the writer thread, which first compacts the replayed state into a fresh journal.
+     */
+    public void start() {
+        if(running) return;
+
+        running = true;
+        writerThread = Thread.ofPlatform().daemon().name("SkyCombatLog-Journal").start(this::runWriter);
+    }
+
+    /**
+     * Stops the writer thread after it has written and flushed every pending record.
+     */
+    public void stop() {
+        if(!running) return;
+
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        writerThread = null;
+    }
+
+    /**
+     * Records a player's state to be written on the next drain, replacing any state of the same kind still waiting.
+     * Kill state is never dropped, since a lost pending kill lets a combat logger escape and a lost clear kills twice.
+     * A refresh of a player with nothing waiting is dropped and counted if too many players are already waiting.
+     * Safe to call from any thread.
+     * @param type The type of entry.
+     * @param uuid The UUID of the player.
+     * @param expiry The wall-clock time in epoch milliseconds the entry stops applying.
+     */
+    public void record(@NotNull JournalRecord.Type type, @NotNull UUID uuid, long expiry) {
+        if(!running) return;
+
+        boolean killState = type == JournalRecord.Type.PENDING_KILL || type == JournalRecord.Type.KILL_CLEARED;
+        synchronized(this) {
+            LinkedHashMap<UUID, PendingRecord> pending = killState ? queuedKills : queuedTags;
+            PendingRecord record = pending.get(uuid);
+            if(record == null) {
+                if(type == JournalRecord.Type.REFRESH && pending.size() >= MAX_PENDING_TAGS) {
+                    droppedRefreshes++;
+                    return;
+                }
+
+                record = new PendingRecord();
+                pending.put(uuid, record);
+            }
+
+            record.type = type;
+            record.expiry = expiry;
+        }
+    }
+
+    /**
+     * The writer thread loop.
+     */
+    private void runWriter() {
+        try {
+            compact();
+        } catch (IOException e) {
+            skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to open the combat journal, combat state will not survive restarts.</red>"));
+            running = false;
+            synchronized(this) {
+                queuedTags.clear();
+                queuedKills.clear();
+            }
+            return;
+        }
+
+        long lastFlush = System.currentTimeMillis();
+        long lastCompact = lastFlush;
+
+        while(running) {
+            try {
+                Thread.sleep(DRAIN_INTERVAL_MILLIS);
+                drain();
+
+                long now = System.currentTimeMillis();
+                if(now - lastCompact >= COMPACT_INTERVAL_MILLIS) {
+                    compact();
+                    lastCompact = now;
+                    lastFlush = now;
+                } else if(dirty && now - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+                    buffer.force();
+                    dirty = false;
+                    lastFlush = now;
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException e) {
+                skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to write to the combat journal.</red>"));
+            }
+        }
+
+        // Anything recorded before stop() returned is still written.
+        try {
+            drain();
+        } catch (IOException e) {
+            skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to write to the combat journal.</red>"));
+        }
+
+        if(dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Writes every pending record, and reports refreshes dropped since the last drain.
+     * @throws IOException If compacting fails.
+     */
+    private void drain() throws IOException {
+        int dropped;
+        synchronized(this) {
+            LinkedHashMap<UUID, PendingRecord> swappedTags = queuedTags;
+            queuedTags = drainingTags;
+            drainingTags = swappedTags;
+
+            LinkedHashMap<UUID, PendingRecord> swappedKills = queuedKills;
+            queuedKills = drainingKills;
+            drainingKills = swappedKills;
+
+            dropped = droppedRefreshes;
+            droppedRefreshes = 0;
+        }
+
+        try {
+            for(Map.Entry<UUID, PendingRecord> entry : drainingTags.entrySet()) {
+                write(entry.getValue().type, entry.getKey(), entry.getValue().expiry);
+            }
+
+            for(Map.Entry<UUID, PendingRecord> entry : drainingKills.entrySet()) {
+                write(entry.getValue().type, entry.getKey(), entry.getValue().expiry);
+            }
+        } finally {
+            drainingTags.clear();
+            drainingKills.clear();
+        }
+
+        if(dropped > 0) {
+            combatStats.add(CombatStats.Counter.JOURNAL_REFRESHES_DROPPED, dropped);
+            skyCombatLog.getComponentLogger().warn(FormatUtil.format("<yellow>Dropped " + dropped + " combat journal refreshes, too many players were waiting to be written.</yellow>"));
+        }
+    }
+
+    /**
+     * Appends a record to the mapped journal, compacting first if it is full.
+     * @param type The type of entry.
+     * @param uuid The UUID of the player.
+     * @param expiry The wall-clock time in epoch milliseconds the entry stops applying.
+     * @throws IOException If compacting fails.
+     */
+    private void write(@NotNull JournalRecord.Type type, @NotNull UUID uuid, long expiry) throws IOException {
+        apply(type, uuid, expiry);
+
+        if(buffer.position() + JournalRecord.BYTES > buffer.limit()) {
+            // Compaction writes the state that already includes this record.
+            compact();
+            return;
+        }
+
+        int position = buffer.position();
+        buffer.putLong(position + 8, uuid.getMostSignificantBits());
+        buffer.putLong(position + 16, uuid.getLeastSignificantBits());
+        buffer.putLong(position + 24, expiry);
+        // The type is written last so a torn record reads as the end of the journal.
+        buffer.put(position, type.getId());
+        buffer.position(position + JournalRecord.BYTES);
+        dirty = true;
+    }
+
+    /**
+     * Applies a record to the in-memory state.
+     * @param type The type of entry.
+     * @param uuid The UUID of the player.
+     * @param expiry The wall-clock time in epoch milliseconds the entry stops applying.
+     */
+    private void apply(@NotNull JournalRecord.Type type, @NotNull UUID uuid, long expiry) {
+        switch(type) {
+            case TAG, REFRESH -> tags.put(uuid, expiry);
+            case EXPIRE -> tags.remove(uuid);
+            case PENDING_KILL -> pendingKills.put(uuid, expiry);
+            case KILL_CLEARED -> pendingKills.remove(uuid);
+        }
+    }
+
+    /**
+     * Rewrites the journal from the live in-memory state into a new file, swaps it in atomically and maps it.
+     * @throws IOException If the journal could not be written.
+     */
+    private void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        tags.values().removeIf(expiry -> expiry <= now);
+        pendingKills.values().removeIf(expiry -> expiry <= now);
+
+        int required = HEADER_BYTES + (tags.size() + pendingKills.size()) * JournalRecord.BYTES;
+        while(required * 2 > capacity) {
+            capacity *= 2;
+        }
+
+        Files.createDirectories(path.getParent());
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        ByteBuffer snapshot = ByteBuffer.allocate(required);
+        snapshot.putInt(MAGIC).putInt(VERSION).putLong(0L);
+        tags.forEach((uuid, expiry) -> putRecord(snapshot, JournalRecord.Type.TAG, uuid, expiry));
+        pendingKills.forEach((uuid, expiry) -> putRecord(snapshot, JournalRecord.Type.PENDING_KILL, uuid, expiry));
+        snapshot.flip();
+
+        try(RandomAccessFile file = new RandomAccessFile(tempPath.toFile(), "rw")) {
+            file.setLength(capacity);
+            FileChannel channel = file.getChannel();
+            while(snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            channel.force(true);
+        }
+
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        buffer.position(required);
+        dirty = false;
+    }
+
+    /**
+     * Writes a record into a heap buffer.
+     * @param target The ByteBuffer to write to.
+     * @param type The type of entry.
+     * @param uuid The UUID of the player.
+     * @param expiry The wall-clock time in epoch milliseconds the entry stops applying.
+     */
+    private void putRecord(@NotNull ByteBuffer target, @NotNull JournalRecord.Type type, @NotNull UUID uuid, long expiry) {
+        target.put(type.getId());
+        target.position(target.position() + 7);
+        target.putLong(uuid.getMostSignificantBits());
+        target.putLong(uuid.getLeastSignificantBits());
+        target.putLong(expiry);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.journal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A single journal entry.
+ * @param type The type of entry.
+ * @param uuid The UUID of the player.
+ * @param expiry The wall-clock time in epoch milliseconds the entry stops applying, 0 for expire and clear entries.
+ */
+public record JournalRecord(@NotNull Type type, @NotNull UUID uuid, long expiry) {
+    /**
+     * The size in bytes of a record on disk.
+     */
+    public static final int BYTES = 32;
+
+    /**
+     * The type of journal entry. The id is what is written to disk, 0 marks the end of the journal.
+     */
+    public enum Type {
+        /**
+         * A player was put into combat.
+         */
+        TAG((byte) 1),
+        /**
+         * A player already in combat had their timer refreshed.
+         */
+        REFRESH((byte) 2),
+        /**
+         * A player left combat.
+         */
+        EXPIRE((byte) 3),
+        /**
+         * A player was marked to be killed for combat logging.
+         */
+        PENDING_KILL((byte) 4),
+        /**
+         * A player marked to be killed has died.
+         */
+        KILL_CLEARED((byte) 5);
+
+        private final byte id;
+
+        Type(byte id) {
+            this.id = id;
+        }
+
+        /**
+         * Gets the id written to disk.
+         * @return The id.
+         */
+        public byte getId() {
+            return id;
+        }
+
+        /**
+         * Gets the type for an id read from disk.
+         * @param id The id.
+         * @return The Type or null if the id is unknown.
+         */
+        public static Type fromId(byte id) {
+            for(Type type : values()) {
+                if(type.id == id) return type;
+            }
+
+            return null;
+        }
+    }
+}
@@ -17,25 +17,47 @@
 */
 package com.github.lukesky19.skycombatlog.listener;
 
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
 import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.policy.CombatRuleCache;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.zone.SafeZoneIndex;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * This class listens to when a player takes damage and if that damage came from another player, mark them both as in combat.
+ * Hits where either player is inside a safe zone are ignored.
+ * Each player is tagged for the combat time of their world, unless they have the bypass permission. Both are resolved
+ * through the {@link CombatRuleCache}, so a hit does not check permissions.
+ * The attacker is recorded so they can be credited with the kill if the victim combat logs.
  */
 public class PlayerDamageListener implements Listener {
+    // Damage events run on the victim's region thread on Folia, so each thread gets its own reusable Location.
+    private static final ThreadLocal<Location> SCRATCH_LOCATION = ThreadLocal.withInitial(() -> new Location(null, 0, 0, 0));
+
+    private final SettingsManager settingsManager;
     private final CombatManager combatManager;
+    private final CombatStats combatStats;
+    private final CombatRuleCache combatRuleCache;
 
     /**
      * Constructor
+     * @param settingsManager A SettingsManager instance.
      * @param combatManager A CombatManager instance.
+     * @param combatStats A CombatStats instance.
+     * @param combatRuleCache A CombatRuleCache instance.
      */
-    public PlayerDamageListener(CombatManager combatManager) {
+    public PlayerDamageListener(SettingsManager settingsManager, CombatManager combatManager, CombatStats combatStats, CombatRuleCache combatRuleCache) {
+        this.settingsManager = settingsManager;
         this.combatManager = combatManager;
+        this.combatStats = combatStats;
+        this.combatRuleCache = combatRuleCache;
     }
 
     /**
@@ -44,9 +66,35 @@ public class PlayerDamageListener implements Listener {
      */
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onPlayerDamage(EntityDamageByEntityEvent entityDamageByEntityEvent) {
+        long startNanos = System.nanoTime();
+
         if(entityDamageByEntityEvent.getEntity() instanceof Player targetPlayer && entityDamageByEntityEvent.getDamageSource().getCausingEntity() instanceof Player sourcePlayer) {
-            combatManager.addPlayerInCombat(sourcePlayer, sourcePlayer.getUniqueId());
-            combatManager.addPlayerInCombat(targetPlayer, targetPlayer.getUniqueId());
+            if(isInSafeZone(sourcePlayer, targetPlayer)) {
+                combatStats.increment(CombatStats.Counter.SAFE_ZONE_HITS);
+            } else {
+                double finalDamage = entityDamageByEntityEvent.getFinalDamage();
+                combatManager.tagCombatants(
+                        sourcePlayer, combatRuleCache.getDurationTicks(sourcePlayer),
+                        targetPlayer, combatRuleCache.getDurationTicks(targetPlayer),
+                        finalDamage);
+                combatManager.recordAttack(sourcePlayer, targetPlayer, finalDamage);
+            }
         }
+
+        combatStats.record(CombatStats.Timer.DAMAGE_LISTENER, startNanos);
+    }
+
+    /**
+     * Checks if either player is inside a safe zone.
+     * @param attacker The Player that dealt the damage.
+     * @param victim The Player that took the damage.
+     * @return true if either player is in a safe zone, false if not.
+     */
+    private boolean isInSafeZone(@NotNull Player attacker, @NotNull Player victim) {
+        SafeZoneIndex safeZones = settingsManager.getSafeZones();
+        if(safeZones.size() == 0) return false;
+
+        Location location = SCRATCH_LOCATION.get();
+        return safeZones.isSafe(attacker.getLocation(location)) || safeZones.isSafe(victim.getLocation(location));
     }
 }
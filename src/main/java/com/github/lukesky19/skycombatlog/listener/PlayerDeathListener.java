@@ -18,6 +18,7 @@
 package com.github.lukesky19.skycombatlog.listener;
 
 import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -31,13 +32,16 @@ import java.util.UUID;
  */
 public class PlayerDeathListener implements Listener {
     private final CombatManager combatManager;
+    private final CombatStats combatStats;
 
     /**
      * Constructor
      * @param combatManager A CombatManager instance.
+     * @param combatStats A CombatStats instance.
      */
-    public PlayerDeathListener(CombatManager combatManager) {
+    public PlayerDeathListener(CombatManager combatManager, CombatStats combatStats) {
         this.combatManager = combatManager;
+        this.combatStats = combatStats;
     }
 
     /**
@@ -46,6 +50,7 @@ public class PlayerDeathListener implements Listener {
      */
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onPlayerDeath(PlayerDeathEvent playerDeathEvent) {
+        long startNanos = System.nanoTime();
         Player player = playerDeathEvent.getPlayer();
         UUID uuid = player.getUniqueId();
 
@@ -54,5 +59,7 @@ public class PlayerDeathListener implements Listener {
 
             combatManager.removePlayerKilled(uuid);
         }
+
+        combatStats.record(CombatStats.Timer.DEATH_LISTENER, startNanos);
     }
 }
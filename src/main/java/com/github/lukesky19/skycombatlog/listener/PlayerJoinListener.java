@@ -0,0 +1,68 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.listener;
+
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.punishment.PunishmentPipeline;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import java.util.UUID;
+
+/**
+ * This class listens to when a player joins and restores any combat state they had before a restart, carrying out
+ * punishments that waited for them to rejoin.
+ */
+public class PlayerJoinListener implements Listener {
+    private final CombatManager combatManager;
+    private final CombatStats combatStats;
+    private final PunishmentPipeline punishmentPipeline;
+
+    /**
+     * Constructor
+     * @param combatManager A CombatManager instance.
+     * @param combatStats A CombatStats instance.
+     * @param punishmentPipeline A PunishmentPipeline instance.
+     */
+    public PlayerJoinListener(CombatManager combatManager, CombatStats combatStats, PunishmentPipeline punishmentPipeline) {
+        this.combatManager = combatManager;
+        this.combatStats = combatStats;
+        this.punishmentPipeline = punishmentPipeline;
+    }
+
+    /**
+     * Listens to when a player joins and restores their journaled combat state.
+     * @param playerJoinEvent A PlayerJoinEvent
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onPlayerJoin(PlayerJoinEvent playerJoinEvent) {
+        long startNanos = System.nanoTime();
+        Player player = playerJoinEvent.getPlayer();
+        UUID uuid = player.getUniqueId();
+
+        // Items are taken before the pending kill runs, so they end up in the chest instead of on the ground.
+        punishmentPipeline.restorePlayer(player, uuid);
+        combatManager.restorePlayer(player, uuid);
+
+        combatStats.record(CombatStats.Timer.JOIN_LISTENER, startNanos);
+    }
+}
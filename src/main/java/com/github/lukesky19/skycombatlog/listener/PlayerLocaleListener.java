@@ -0,0 +1,58 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.listener;
+
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * This class listens to when a player's client changes language, so they are sent messages in it.
+ */
+public class PlayerLocaleListener implements Listener {
+    private final LocaleManager localeManager;
+
+    /**
+     * Constructor
+     * @param localeManager A LocaleManager instance.
+     */
+    public PlayerLocaleListener(LocaleManager localeManager) {
+        this.localeManager = localeManager;
+    }
+
+    /**
+     * Listens to when a player's client changes language and records the new one.
+     * @param playerLocaleChangeEvent A PlayerLocaleChangeEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent playerLocaleChangeEvent) {
+        localeManager.setClientLocale(playerLocaleChangeEvent.getPlayer().getUniqueId(), playerLocaleChangeEvent.locale());
+    }
+
+    /**
+     * Listens to when a player disconnects and forgets their client's language.
+     * @param playerQuitEvent A PlayerQuitEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent playerQuitEvent) {
+        localeManager.removeClientLocale(playerQuitEvent.getPlayer().getUniqueId());
+    }
+}
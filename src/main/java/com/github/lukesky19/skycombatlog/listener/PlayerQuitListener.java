@@ -17,66 +17,96 @@
 */
 package com.github.lukesky19.skycombatlog.listener;
 
-import com.github.lukesky19.skycombatlog.SkyCombatLog;
-import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
-import com.github.lukesky19.skycombatlog.configuration.record.Locale;
+import com.github.lukesky19.skycombatlog.event.CombatLogEvent;
+import com.github.lukesky19.skycombatlog.manager.CombatLogBroadcaster;
 import com.github.lukesky19.skycombatlog.manager.CombatManager;
-import com.github.lukesky19.skylib.format.FormatUtil;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
-import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import com.github.lukesky19.skycombatlog.punishment.PunishmentPipeline;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
-import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
- * This class listens to when a player disconnects and if they are in combat kills them.
+ * This class listens to when a player disconnects and if they are in combat punishes them, crediting their attacker.
+ * The punishment is carried out by the {@link PunishmentPipeline}, which puts off work that does not fit in the tick.
+ * With replication enabled, the player is handed off to the network instead and only punished, the same way, if they do
+ * not show up on another server in time.
+ * Other plugins can cancel the {@link CombatLogEvent} to let the player go unpunished.
  */
 public class PlayerQuitListener implements Listener {
-    private final SkyCombatLog skyCombatLog;
-    private final LocaleManager localeManager;
     private final CombatManager combatManager;
+    private final CombatLogBroadcaster combatLogBroadcaster;
+    private final CombatStats combatStats;
+    private final PunishmentPipeline punishmentPipeline;
 
     /**
      * Constructor
-     * @param skyCombatLog The SkyCombatLog plugin
-     * @param localeManager A LocaleManager instance.
      * @param combatManager A CombatManager instance.
+     * @param combatLogBroadcaster A CombatLogBroadcaster instance.
+     * @param combatStats A CombatStats instance.
+     * @param punishmentPipeline A PunishmentPipeline instance.
      */
-    public PlayerQuitListener(SkyCombatLog skyCombatLog, LocaleManager localeManager, CombatManager combatManager) {
-        this.skyCombatLog = skyCombatLog;
-        this.localeManager = localeManager;
+    public PlayerQuitListener(CombatManager combatManager, CombatLogBroadcaster combatLogBroadcaster, CombatStats combatStats, PunishmentPipeline punishmentPipeline) {
         this.combatManager = combatManager;
+        this.combatLogBroadcaster = combatLogBroadcaster;
+        this.combatStats = combatStats;
+        this.punishmentPipeline = punishmentPipeline;
     }
 
     /**
-     * Listens to when a player disconnects and kills them if they are in combat.
+     * Listens to when a player disconnects and punishes them if they are in combat.
      * @param playerQuitEvent A PlayerQuitEvent
      */
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onPlayerQuit(PlayerQuitEvent playerQuitEvent) {
-        @NotNull Locale locale = localeManager.getLocale();
+        long startNanos = System.nanoTime();
         Player player = playerQuitEvent.getPlayer();
         UUID uuid = player.getUniqueId();
 
+        punishmentPipeline.recordQuit();
+        combatManager.clearDisplayMode(uuid);
+
         if(combatManager.isPlayerInCombat(uuid)) {
+            String name = player.getName();
+            boolean handedOff = combatManager.handOffPlayer(player, uuid, () -> {
+                punishmentPipeline.punishOffline(uuid, name);
+                combatLogBroadcaster.announce(name);
+                combatStats.increment(CombatStats.Counter.COMBAT_LOGS);
+            });
+
+            if(handedOff) {
+                combatStats.increment(CombatStats.Counter.HANDOFFS);
+                combatStats.record(CombatStats.Timer.QUIT_LISTENER, startNanos);
+                return;
+            }
+
+            if(CombatLogEvent.hasListeners()) {
+                CombatLogEvent combatLogEvent = new CombatLogEvent(uuid, name, player);
+                player.getServer().getPluginManager().callEvent(combatLogEvent);
+                if(combatLogEvent.isCancelled()) {
+                    combatManager.removePlayerInCombat(player, uuid);
+                    combatStats.record(CombatStats.Timer.QUIT_LISTENER, startNanos);
+                    return;
+                }
+            }
+
+            combatManager.creditKill(player, uuid);
+
             combatManager.removePlayerInCombat(player, uuid);
 
             combatManager.addPlayerKilled(uuid);
 
-            player.setHealth(0);
+            punishmentPipeline.punish(player, uuid);
 
-            List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("player_name", player.getName()));
-            Component message = FormatUtil.format(locale.prefix() + locale.playerCombatLogged(), placeholders);
-            for(Player p : skyCombatLog.getServer().getOnlinePlayers()) {
-                p.sendMessage(message);
-            }
+            combatLogBroadcaster.announce(player.getName());
+
+            combatStats.increment(CombatStats.Counter.COMBAT_LOGS);
         }
+
+        combatStats.record(CombatStats.Timer.QUIT_LISTENER, startNanos);
     }
 }
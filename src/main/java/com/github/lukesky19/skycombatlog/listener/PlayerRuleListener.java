@@ -0,0 +1,80 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.listener;
+
+import com.github.lukesky19.skycombatlog.policy.CombatRuleCache;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * This class listens to when the combat rules that apply to a player may have changed, so they are resolved again.
+ * The server re-sends a player's commands after their permissions or op status change, which is used as the signal
+ * that their permissions were recalculated.
+ */
+public class PlayerRuleListener implements Listener {
+    private final CombatRuleCache combatRuleCache;
+
+    /**
+     * Constructor
+     * @param combatRuleCache A CombatRuleCache instance.
+     */
+    public PlayerRuleListener(CombatRuleCache combatRuleCache) {
+        this.combatRuleCache = combatRuleCache;
+    }
+
+    /**
+     * Listens to when a player joins and drops any combat rules cached for them.
+     * @param playerJoinEvent A PlayerJoinEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent playerJoinEvent) {
+        combatRuleCache.invalidate(playerJoinEvent.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Listens to when a player changes world and drops the combat rules cached for them.
+     * @param playerChangedWorldEvent A PlayerChangedWorldEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent playerChangedWorldEvent) {
+        combatRuleCache.invalidate(playerChangedWorldEvent.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Listens to when a player's commands are re-sent after their permissions changed and drops the combat rules cached for them.
+     * @param playerCommandSendEvent A PlayerCommandSendEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPermissionsRecalculated(PlayerCommandSendEvent playerCommandSendEvent) {
+        combatRuleCache.invalidate(playerCommandSendEvent.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Listens to when a player disconnects and drops the combat rules cached for them.
+     * @param playerQuitEvent A PlayerQuitEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent playerQuitEvent) {
+        combatRuleCache.invalidate(playerQuitEvent.getPlayer().getUniqueId());
+    }
+}
@@ -18,9 +18,9 @@
 package com.github.lukesky19.skycombatlog.listener;
 
 import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
-import com.github.lukesky19.skycombatlog.configuration.record.Locale;
 import com.github.lukesky19.skycombatlog.manager.CombatManager;
-import com.github.lukesky19.skylib.format.FormatUtil;
+import com.github.lukesky19.skycombatlog.policy.TeleportPolicy;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -30,40 +30,50 @@ import org.bukkit.event.player.PlayerTeleportEvent;
 import java.util.UUID;
 
 /**
- * This class listens to when a player teleports and if they are in combat cancels it.
+ * This class listens to when a player teleports and if they are in combat cancels it, following the configured
+ * {@link TeleportPolicy}.
  */
 public class PlayerTeleportListener implements Listener {
     private final LocaleManager localeManager;
     private final CombatManager combatManager;
+    private final CombatStats combatStats;
 
     /**
      * Constructor
      * @param localeManager A LocaleManager instance.
      * @param combatManager A CombatManager instance.
+     * @param combatStats A CombatStats instance.
      */
-    public PlayerTeleportListener(LocaleManager localeManager, CombatManager combatManager) {
+    public PlayerTeleportListener(LocaleManager localeManager, CombatManager combatManager, CombatStats combatStats) {
         this.localeManager = localeManager;
         this.combatManager = combatManager;
+        this.combatStats = combatStats;
     }
 
     /**
-     * Listens to when a player teleports and cancels it if they are in combat.
+     * Listens to when a player teleports and cancels it if they are in combat and the teleport's world and cause are
+     * blocked. Most teleports on a server are by players not in combat, so the tag is checked first.
      * @param playerTeleportEvent A PlayerTeleportEvent
      */
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onTeleport(PlayerTeleportEvent playerTeleportEvent) {
+        long startNanos = System.nanoTime();
         Player player = playerTeleportEvent.getPlayer();
         UUID uuid = player.getUniqueId();
 
-        if(playerTeleportEvent.getCause().equals(PlayerTeleportEvent.TeleportCause.COMMAND)
-                || playerTeleportEvent.getCause().equals(PlayerTeleportEvent.TeleportCause.PLUGIN)
-                || playerTeleportEvent.getCause().equals(PlayerTeleportEvent.TeleportCause.UNKNOWN)) {
-            if(combatManager.isPlayerInCombat(uuid)) {
-                Locale locale = localeManager.getLocale();
+        if(combatManager.isPlayerInCombat(uuid)) {
+            TeleportPolicy teleportPolicy = localeManager.getTeleportPolicy();
 
+            if(teleportPolicy.isBlocked(playerTeleportEvent.getFrom().getWorld(), playerTeleportEvent.getCause())) {
                 playerTeleportEvent.setCancelled(true);
-                player.sendMessage(FormatUtil.format(locale.prefix() + locale.teleportInCombat()));
+                combatStats.increment(CombatStats.Counter.BLOCKED_TELEPORTS);
+
+                if(teleportPolicy.tryDenialMessage(uuid)) {
+                    player.sendMessage(localeManager.getTeleportDenialMessage(player));
+                }
             }
         }
+
+        combatStats.record(CombatStats.Timer.TELEPORT_LISTENER, startNanos);
     }
 }
@@ -0,0 +1,141 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.manager;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.record.LocaleMessages;
+import com.github.lukesky19.skycombatlog.util.ComponentTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects combat log announcements made within a tick and broadcasts them as one message to the whole server.
+ * With client locales in use, the message is rendered once per language and each player is sent the one in theirs.
+ */
+public class CombatLogBroadcaster {
+    private static final int MAX_LISTED_NAMES = 3;
+
+    private final SkyCombatLog skyCombatLog;
+    private final LocaleManager localeManager;
+    private final ConcurrentLinkedQueue<String> pendingNames = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     * @param localeManager A LocaleManager instance
+     */
+    public CombatLogBroadcaster(SkyCombatLog skyCombatLog, LocaleManager localeManager) {
+        this.skyCombatLog = skyCombatLog;
+        this.localeManager = localeManager;
+    }
+
+    /**
+     * Queues a player's combat log to be announced on the next tick.
+     * Safe to call from any thread.
+     * @param playerName The name of the player that combat logged.
+     */
+    public void announce(@NotNull String playerName) {
+        pendingNames.add(playerName);
+
+        if(flushScheduled.compareAndSet(false, true)) {
+            skyCombatLog.getServer().getGlobalRegionScheduler().run(skyCombatLog, task -> flush());
+        }
+    }
+
+    /**
+     * Sends every queued announcement as a single message through the server-wide audience.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+
+        List<String> names = new ArrayList<>();
+        String name;
+        while((name = pendingNames.poll()) != null) {
+            names.add(name);
+        }
+
+        if(names.isEmpty()) return;
+
+        if(!localeManager.hasClientLocales()) {
+            skyCombatLog.getServer().sendMessage(render(localeManager.getMessages(), names));
+            return;
+        }
+
+        Map<LocaleMessages, Component> rendered = new IdentityHashMap<>();
+        for(Player player : skyCombatLog.getServer().getOnlinePlayers()) {
+            player.sendMessage(rendered.computeIfAbsent(localeManager.getMessages(player), messages -> render(messages, names)));
+        }
+
+        skyCombatLog.getServer().getConsoleSender().sendMessage(rendered.computeIfAbsent(localeManager.getMessages(), messages -> render(messages, names)));
+    }
+
+    /**
+     * Renders the announcement for the players that combat logged.
+     * @param messages The LocaleMessages to render with.
+     * @param names The names of the players that combat logged.
+     * @return The rendered message.
+     */
+    @NotNull
+    private Component render(@NotNull LocaleMessages messages, @NotNull List<String> names) {
+        if(names.size() == 1) {
+            return messages.combatLogged().render("player_name", names.getFirst());
+        }
+
+        return messages.playersCombatLogged().render("player_names", joinNames(messages, names));
+    }
+
+    /**
+     * Joins the first few names with commas and summarizes the rest as a count.
+     * When every name is listed, the last two are joined with the locale's "and" instead.
+     * @param messages The LocaleMessages to render the count and "and" with.
+     * @param names The names of the players that combat logged.
+     * @return The joined names.
+     */
+    @NotNull
+    private Component joinNames(@NotNull LocaleMessages messages, @NotNull List<String> names) {
+        int listed = Math.min(names.size(), MAX_LISTED_NAMES);
+
+        List<Component> listedNames = new ArrayList<>(listed);
+        for(int i = 0; i < listed; i++) {
+            listedNames.add(Component.text(names.get(i)));
+        }
+
+        int others = names.size() - listed;
+        if(others == 0) {
+            return Component.join(JoinConfiguration.builder()
+                    .separator(Component.text(", "))
+                    .lastSeparator(messages.combatLoggedAnd())
+                    .build(), listedNames);
+        }
+
+        ComponentTemplate othersMessage = others == 1 ? messages.combatLoggedOther() : messages.combatLoggedOthers();
+        return Component.join(JoinConfiguration.commas(true), listedNames)
+                .append(othersMessage.render("count", String.valueOf(others)));
+    }
+}
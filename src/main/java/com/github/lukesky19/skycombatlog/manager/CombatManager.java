@@ -18,83 +18,370 @@
 package com.github.lukesky19.skycombatlog.manager;
 
 import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.attribution.AttackerHistory;
+import com.github.lukesky19.skycombatlog.attribution.KillCreditMode;
 import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
 import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
-import com.github.lukesky19.skycombatlog.configuration.record.Locale;
 import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.display.BossBarDisplay;
+import com.github.lukesky19.skycombatlog.display.DisplayMode;
+import com.github.lukesky19.skycombatlog.event.CombatEnterEvent;
+import com.github.lukesky19.skycombatlog.event.CombatLeaveEvent;
+import com.github.lukesky19.skycombatlog.event.CombatLogEvent;
+import com.github.lukesky19.skycombatlog.event.CombatRefreshEvent;
+import com.github.lukesky19.skycombatlog.journal.CombatJournal;
+import com.github.lukesky19.skycombatlog.journal.JournalRecord;
+import com.github.lukesky19.skycombatlog.policy.CombatRules;
+import com.github.lukesky19.skycombatlog.replication.CombatReplicator;
+import com.github.lukesky19.skycombatlog.replication.FileTransport;
+import com.github.lukesky19.skycombatlog.replication.LoopbackTransport;
+import com.github.lukesky19.skycombatlog.replication.PluginMessageTransport;
+import com.github.lukesky19.skycombatlog.replication.ReplicationTransport;
+import com.github.lukesky19.skycombatlog.replication.TransportType;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.tracker.BukkitCombatTracker;
+import com.github.lukesky19.skycombatlog.tracker.CombatTracker;
+import com.github.lukesky19.skycombatlog.tracker.ExecutionMode;
+import com.github.lukesky19.skycombatlog.tracker.RegionizedCombatTracker;
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.CombatStore;
+import com.github.lukesky19.skycombatlog.tracker.store.PackedCombatStore;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import com.github.lukesky19.skycombatlog.tracker.store.WheelCombatStore;
+import com.github.lukesky19.skycombatlog.util.ExpiringSet;
 import com.github.lukesky19.skylib.format.FormatUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
-import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.Server;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Manages when a player is in combat.
  */
-public class CombatManager {
+public class CombatManager implements CombatTracker.TimerHandler, CombatReplicator.UpdateHandler {
     private final SkyCombatLog skyCombatLog;
     private final SettingsManager settingsManager;
     private final LocaleManager localeManager;
+    private final CombatStats combatStats;
 
-    private final HashMap<UUID, Integer> playersInCombat = new HashMap<>();
-    private final List<UUID> killedPlayers = new ArrayList<>();
-    private BukkitTask timerTask;
+    private static final int TICKS_PER_SECOND = 20;
+    private static final long KILLED_PLAYER_TTL_MILLIS = 5L * 60L * 1000L;
+    private static final int MAX_KILLED_PLAYERS = 4096;
+    private static final long SWEEP_PERIOD_TICKS = 60L * TICKS_PER_SECOND;
+    private static final long MILLIS_PER_TICK = 50L;
+    private static final long JOURNALED_KILL_TTL_MILLIS = 7L * 24L * 60L * 60L * 1000L;
+    private static final long DEFAULT_ACTION_BAR_KEEP_ALIVE_TICKS = 40L;
+
+    private final ExpiringSet<UUID> killedPlayers = new ExpiringSet<>(KILLED_PLAYER_TTL_MILLIS, MAX_KILLED_PLAYERS);
+    private CombatTracker combatTracker;
+    private ScheduledTask sweeperTask;
+    private @Nullable CombatJournal combatJournal;
+    private @Nullable CombatReplicator combatReplicator;
+    private long handoffGraceTicks;
+    private final Set<UUID> pendingHandoffs = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> restoredTags = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> restoredKills = new ConcurrentHashMap<>();
+    private final Map<UUID, SentActionBar> sentActionBars = new ConcurrentHashMap<>();
+    private final Map<UUID, int[]> refreshEventTicks = new ConcurrentHashMap<>();
+    private final Map<UUID, AttackerHistory> attackerHistories = new ConcurrentHashMap<>();
+    // A map rather than two bits per player: a per-player bit index would need its own UUID to index map, which costs
+    // as much as this one, and entries only exist for players that picked a mode and are removed when they quit.
+    private final Map<UUID, DisplayMode> displayModes = new ConcurrentHashMap<>();
+    private final BossBarDisplay bossBarDisplay;
 
     /**
      * Constructor
      * @param skyCombatLog The SkyCombatLog plugin
      * @param settingsManager A SettingsManager instance
      * @param localeManager A LocaleManager instance
+     * @param combatStats A CombatStats instance
      */
-    public CombatManager(SkyCombatLog skyCombatLog, SettingsManager settingsManager, LocaleManager localeManager) {
+    public CombatManager(SkyCombatLog skyCombatLog, SettingsManager settingsManager, LocaleManager localeManager, CombatStats combatStats) {
         this.skyCombatLog = skyCombatLog;
         this.settingsManager = settingsManager;
         this.localeManager = localeManager;
-
-        startTimerTask();
+        this.combatStats = combatStats;
+        this.bossBarDisplay = new BossBarDisplay(settingsManager, localeManager);
     }
 
     /**
-     * Marks a player as in combat and sends the action bar timer.
+     * Marks a player as in combat for the combat time of their world and sends the action bar timer.
+     * Players with the bypass permission, or in a world without combat, are left alone.
      * @param player A Player
      * @param uuid A Player's UUID
      */
     public void addPlayerInCombat(@NotNull Player player, @NotNull UUID uuid) {
-        Settings settings = settingsManager.getSettings();
+        if(settingsManager.getSettings() == null) {
+            skyCombatLog.getComponentLogger().error("<red>Unable to put player into combat due to invalid plugin settings.</red>");
+            return;
+        }
+
+        if(player.hasPermission(CombatRules.BYPASS_PERMISSION)) return;
+
+        long durationTicks = settingsManager.getCombatRules().getDurationTicks(player.getWorld());
+        if(durationTicks > 0) tagPlayer(player, uuid, durationTicks);
+    }
 
-        if(settings != null) {
-            playersInCombat.put(uuid, settings.combatTime());
-            sendActionBar(player, uuid);
-        } else {
+    /**
+     * Marks both players of a player-vs-player hit as in combat, each for the combat time of their own rules.
+     * Hits below the configured minimum damage are ignored, and players refreshed within the configured re-tag cooldown
+     * are left alone, so rapid or trivial hits do not churn combat state.
+     * @param attacker The Player that dealt the damage.
+     * @param attackerTicks The combat time of the attacker in ticks, 0 to not tag them.
+     * @param victim The Player that took the damage.
+     * @param victimTicks The combat time of the victim in ticks, 0 to not tag them.
+     * @param damage The final damage of the hit.
+     */
+    public void tagCombatants(@NotNull Player attacker, long attackerTicks, @NotNull Player victim, long victimTicks, double damage) {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null) {
             skyCombatLog.getComponentLogger().error("<red>Unable to put player into combat due to invalid plugin settings.</red>");
+            return;
         }
+
+        if(damage < settings.minimumDamage()) return;
+
+        if(attackerTicks > 0) refreshPlayer(attacker, attackerTicks, settings.retagCooldownTicks());
+        if(victimTicks > 0) refreshPlayer(victim, victimTicks, settings.retagCooldownTicks());
+    }
+
+    /**
+     * Records a player-vs-player hit on a player in combat, so the attacker can be credited if the victim combat logs.
+     * Hits below the configured minimum damage are ignored.
+     * @param attacker The Player that dealt the damage.
+     * @param victim The Player that took the damage.
+     * @param damage The final damage of the hit.
+     */
+    public void recordAttack(@NotNull Player attacker, @NotNull Player victim, double damage) {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || damage < settings.minimumDamage() || getKillCreditMode(settings) == KillCreditMode.NONE) return;
+
+        UUID victimId = victim.getUniqueId();
+        if(!combatTracker.isTagged(victimId)) return;
+
+        // Only the thread that owns the victim records their hits, so the history itself needs no synchronization.
+        attackerHistories.computeIfAbsent(victimId, uuid -> new AttackerHistory())
+                .record(attacker.getUniqueId(), skyCombatLog.getServer().getCurrentTick(), damage);
     }
 
     /**
-     * Removes a player that was marked in combat and clears the action bar.
+     * Credits the configured attacker with the kill of a player that combat logged.
+     * The attacker is set as the player's killer if they are online, and the configured reward command is run for them.
+     * Must be called before the player is taken out of combat.
+     * @param player The Player that combat logged.
+     * @param uuid The UUID of the player.
+     */
+    public void creditKill(@NotNull Player player, @NotNull UUID uuid) {
+        UUID attackerId = findKillCredit(player, uuid);
+        if(attackerId == null) return;
+
+        Player attacker = skyCombatLog.getServer().getPlayer(attackerId);
+        if(attacker != null) player.setKiller(attacker);
+
+        rewardKill(attackerId, player.getName());
+    }
+
+    /**
+     * Finds the attacker the configured kill credit mode credits with the kill of a player.
+     * Must be called before the player is taken out of combat.
+     * @param player The Player that combat logged.
+     * @param uuid The UUID of the player.
+     * @return The UUID of the credited attacker or null if nobody is credited.
+     */
+    @Nullable
+    private UUID findKillCredit(@NotNull Player player, @NotNull UUID uuid) {
+        Settings settings = settingsManager.getSettings();
+        AttackerHistory history = attackerHistories.get(uuid);
+        if(settings == null || history == null) return null;
+
+        // Only hits within the player's own combat time count, not the longest combat time of any world.
+        long durationTicks = settingsManager.getCombatRules().getDurationTicks(player.getWorld());
+        int sinceTick = (int) (skyCombatLog.getServer().getCurrentTick() - durationTicks);
+        return switch(getKillCreditMode(settings)) {
+            case NONE -> null;
+            case LAST_ATTACKER -> history.getLastAttacker(sinceTick);
+            case TOP_DAMAGE -> history.getTopAttacker(sinceTick);
+        };
+    }
+
+    /**
+     * Runs the configured reward command for the attacker credited with a kill.
+     * @param attackerId The UUID of the credited attacker.
+     * @param victimName The name of the player that combat logged.
+     */
+    private void rewardKill(@NotNull UUID attackerId, @NotNull String victimName) {
+        Settings settings = settingsManager.getSettings();
+        String rewardCommand = settings != null && settings.killCredit() != null ? settings.killCredit().rewardCommand() : null;
+        if(rewardCommand == null || rewardCommand.isBlank()) return;
+
+        Server server = skyCombatLog.getServer();
+        Player attacker = server.getPlayer(attackerId);
+        String attackerName = attacker != null ? attacker.getName() : server.getOfflinePlayer(attackerId).getName();
+        if(attackerName == null) return;
+
+        String command = rewardCommand.replace("<attacker>", attackerName).replace("<victim>", victimName);
+        server.getGlobalRegionScheduler().execute(skyCombatLog, () -> server.dispatchCommand(server.getConsoleSender(), command));
+    }
+
+    /**
+     * Gets which attacker is credited with the kill when a player combat logs.
+     * @param settings The plugin's settings.
+     * @return The KillCreditMode
+     */
+    @NotNull
+    private KillCreditMode getKillCreditMode(@NotNull Settings settings) {
+        Settings.KillCredit killCredit = settings.killCredit();
+        return killCredit != null && killCredit.mode() != null ? killCredit.mode() : KillCreditMode.LAST_ATTACKER;
+    }
+
+    /**
+     * Tags a player unless they were already tagged or refreshed within the cooldown.
+     * @param player A Player
+     * @param durationTicks The duration of the tag in ticks.
+     * @param cooldownTicks The minimum number of ticks between refreshes.
+     */
+    private void refreshPlayer(@NotNull Player player, long durationTicks, long cooldownTicks) {
+        UUID uuid = player.getUniqueId();
+
+        if(cooldownTicks > 0) {
+            long remainingTicks = combatTracker.getRemainingTicks(uuid);
+            if(remainingTicks != CombatTracker.NOT_TAGGED && durationTicks - remainingTicks < cooldownTicks) return;
+        }
+
+        tagPlayer(player, uuid, durationTicks);
+    }
+
+    /**
+     * Tags a player for the given duration and journals it.
+     * A {@link CombatEnterEvent} is called first for a player not yet in combat, and a coalesced {@link CombatRefreshEvent}
+     * after refreshing a player already in combat.
      * @param player A Player
      * @param uuid A Player's UUID
+     * @param durationTicks The duration of the tag in ticks.
      */
-    public void removePlayerInCombat(@NotNull Player player, @NotNull UUID uuid) {
-        playersInCombat.remove(uuid);
+    private void tagPlayer(@NotNull Player player, @NotNull UUID uuid, long durationTicks) {
+        boolean refresh = combatTracker.isTagged(uuid);
+        JournalRecord.Type type = refresh ? JournalRecord.Type.REFRESH : JournalRecord.Type.TAG;
+
+        if(!refresh && CombatEnterEvent.hasListeners()) {
+            CombatEnterEvent enterEvent = new CombatEnterEvent(player, durationTicks);
+            skyCombatLog.getServer().getPluginManager().callEvent(enterEvent);
+            if(enterEvent.isCancelled()) return;
+        }
+
+        combatTracker.tag(player, durationTicks);
+        combatStats.increment(refresh ? CombatStats.Counter.REFRESHES : CombatStats.Counter.TAGS);
+
+        record(type, uuid, System.currentTimeMillis() + durationTicks * MILLIS_PER_TICK);
 
-        if(player.isOnline() && player.isConnected()) {
-           removeActionBar(player);
+        if(refresh) callRefreshEvent(player, uuid, durationTicks);
+    }
+
+    /**
+     * Calls a {@link CombatRefreshEvent} for a player, unless one was already called for them this tick.
+     * @param player A Player
+     * @param uuid A Player's UUID
+     * @param durationTicks The duration of the tag in ticks.
+     */
+    private void callRefreshEvent(@NotNull Player player, @NotNull UUID uuid, long durationTicks) {
+        if(!CombatRefreshEvent.hasListeners()) return;
+
+        int currentTick = skyCombatLog.getServer().getCurrentTick();
+        // Only the thread that owns the player refreshes them, so the entry itself needs no synchronization.
+        int[] lastTick = refreshEventTicks.computeIfAbsent(uuid, key -> new int[] {currentTick - 1});
+        if(lastTick[0] == currentTick) return;
+        lastTick[0] = currentTick;
+
+        skyCombatLog.getServer().getPluginManager().callEvent(new CombatRefreshEvent(player, durationTicks));
+    }
+
+    /**
+     * Drops the per-player state kept while a player is in combat and calls a {@link CombatLeaveEvent}.
+     * @param uuid The UUID of the player.
+     * @param player The Player if online, otherwise null.
+     * @param reason Why the player left combat.
+     */
+    private void onLeftCombat(@NotNull UUID uuid, @Nullable Player player, @NotNull CombatLeaveEvent.Reason reason) {
+        refreshEventTicks.remove(uuid);
+        attackerHistories.remove(uuid);
+        if(!CombatLeaveEvent.hasListeners()) return;
+
+        skyCombatLog.getServer().getPluginManager().callEvent(new CombatLeaveEvent(uuid, player, reason));
+    }
+
+    /**
+     * Journals a combat state change and replicates it to the other servers of the network, if enabled.
+     * @param type The type of change.
+     * @param uuid The UUID of the player.
+     * @param expiry The wall-clock time in epoch milliseconds the change stops applying, 0 for expire and clear changes.
+     */
+    private void record(@NotNull JournalRecord.Type type, @NotNull UUID uuid, long expiry) {
+        if(combatJournal != null) {
+            combatJournal.record(type, uuid, expiry);
+        }
+
+        if(combatReplicator != null) {
+            combatReplicator.record(type, uuid, expiry);
         }
     }
 
+    /**
+     * Restores the combat state journaled before the last restart, or replicated from another server, for a player that joined.
+     * A pending combat log kill is carried out on the next tick, otherwise any remaining combat time is re-applied.
+     * @param player A Player
+     * @param uuid A Player's UUID
+     */
+    public void restorePlayer(@NotNull Player player, @NotNull UUID uuid) {
+        // A player handed off by this server came back before the grace period ran out.
+        pendingHandoffs.remove(uuid);
+
+        Long restoredTag = restoredTags.remove(uuid);
+
+        if(restoredKills.remove(uuid) != null) {
+            addPlayerKilled(uuid);
+            player.getScheduler().run(skyCombatLog, task -> player.setHealth(0), null);
+            return;
+        }
+
+        if(restoredTag == null) return;
+
+        long remainingMillis = restoredTag - System.currentTimeMillis();
+        if(remainingMillis > 0) {
+            tagPlayer(player, uuid, (remainingMillis + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+        } else if(combatReplicator != null) {
+            // Tell the server the player came from that they arrived, even though their combat ran out on the way.
+            combatReplicator.record(JournalRecord.Type.EXPIRE, uuid, 0L);
+        }
+    }
+
+    /**
+     * Removes a player that was marked in combat and clears the combat timer display.
+     * @param player A Player
+     * @param uuid A Player's UUID
+     */
+    public void removePlayerInCombat(@NotNull Player player, @NotNull UUID uuid) {
+        if(combatTracker.untag(uuid)) {
+            record(JournalRecord.Type.EXPIRE, uuid, 0L);
+            onLeftCombat(uuid, player, CombatLeaveEvent.Reason.REMOVED);
+        }
+
+        clearDisplay(uuid, player);
+    }
+
     /**
      * Checks if a player is in combat.
      * @param uuid The UUID of the player.
      * @return true if in combat, false if not.
      */
     public boolean isPlayerInCombat(@NotNull UUID uuid) {
-        return playersInCombat.containsKey(uuid);
+        return combatTracker.isTagged(uuid);
     }
 
     /**
@@ -103,6 +390,8 @@ public class CombatManager {
      */
     public void addPlayerKilled(@NotNull UUID uuid) {
         killedPlayers.add(uuid);
+
+        record(JournalRecord.Type.PENDING_KILL, uuid, System.currentTimeMillis() + JOURNALED_KILL_TTL_MILLIS);
     }
 
     /**
@@ -111,6 +400,94 @@ public class CombatManager {
      */
     public void removePlayerKilled(@NotNull UUID uuid) {
         killedPlayers.remove(uuid);
+
+        record(JournalRecord.Type.KILL_CLEARED, uuid, 0L);
+    }
+
+    /**
+     * Puts off the kill of a player marked as killed for combat logging until they next join.
+     * @param uuid The UUID of the player.
+     */
+    public void deferKill(@NotNull UUID uuid) {
+        restoredKills.put(uuid, System.currentTimeMillis() + JOURNALED_KILL_TTL_MILLIS);
+    }
+
+    /**
+     * Hands a player in combat who left off to the rest of the network instead of killing them, if replication is enabled.
+     * The player keeps their remaining combat time wherever they join next. If they do not show up on another server
+     * within the configured grace period, they are treated as combat logging like a player that quit without replication:
+     * a {@link CombatLogEvent} is called, the attacker found when they left is credited with the kill, the player is
+     * marked as killed and onCombatLogged is run to punish them.
+     * @param player The Player that left.
+     * @param uuid The UUID of the player.
+     * @param onCombatLogged Called on the global region thread if the player did not show up within the grace period,
+     *                       after they were marked as killed.
+     * @return true if the player was handed off, false if replication is disabled and the player should be killed now.
+     */
+    public boolean handOffPlayer(@NotNull Player player, @NotNull UUID uuid, @NotNull Runnable onCombatLogged) {
+        if(combatReplicator == null) return false;
+
+        long remainingTicks = combatTracker.getRemainingTicks(uuid);
+        if(remainingTicks == CombatTracker.NOT_TAGGED) return false;
+
+        // The attacker history is dropped once the player leaves combat below, so the credit is decided now.
+        UUID attackerId = findKillCredit(player, uuid);
+        long expiry = System.currentTimeMillis() + remainingTicks * MILLIS_PER_TICK;
+        combatTracker.untag(uuid);
+        sentActionBars.remove(uuid);
+        bossBarDisplay.hide(uuid, player);
+        onLeftCombat(uuid, player, CombatLeaveEvent.Reason.HANDED_OFF);
+
+        // Keep the deadline for a rejoin here, and re-publish it so the next server restores the exact remaining time.
+        restoredTags.put(uuid, expiry);
+        record(JournalRecord.Type.REFRESH, uuid, expiry);
+        pendingHandoffs.add(uuid);
+
+        String name = player.getName();
+        skyCombatLog.getServer().getGlobalRegionScheduler().runDelayed(skyCombatLog, task -> {
+            if(!pendingHandoffs.remove(uuid)) return;
+
+            restoredTags.remove(uuid);
+
+            if(CombatLogEvent.hasListeners()) {
+                CombatLogEvent combatLogEvent = new CombatLogEvent(uuid, name, null);
+                skyCombatLog.getServer().getPluginManager().callEvent(combatLogEvent);
+                if(combatLogEvent.isCancelled()) {
+                    record(JournalRecord.Type.EXPIRE, uuid, 0L);
+                    return;
+                }
+            }
+
+            // The player is offline, so the attacker only gets the reward, not the kill itself.
+            if(attackerId != null) rewardKill(attackerId, name);
+            addPlayerKilled(uuid);
+            onCombatLogged.run();
+        }, handoffGraceTicks);
+
+        return true;
+    }
+
+    /**
+     * Applies combat state replicated from another server, so it can be restored when the player joins this one.
+     * Any tag state change from another server means a player handed off by this server arrived there.
+     * @param update The update.
+     */
+    @Override
+    public void onRemoteUpdate(@NotNull JournalRecord update) {
+        UUID uuid = update.uuid();
+
+        switch(update.type()) {
+            case TAG, REFRESH -> {
+                pendingHandoffs.remove(uuid);
+                restoredTags.put(uuid, update.expiry());
+            }
+            case EXPIRE -> {
+                pendingHandoffs.remove(uuid);
+                restoredTags.remove(uuid);
+            }
+            case PENDING_KILL -> restoredKills.put(uuid, update.expiry());
+            case KILL_CLEARED -> restoredKills.remove(uuid);
+        }
     }
 
     /**
@@ -123,28 +500,151 @@ public class CombatManager {
     }
 
     /**
-     * Gets the player's combat time ends.
+     * Gets the player's remaining combat time, computed from their combat deadline.
      * @param uuid The UUID of the player.
-     * @return An integer of their combat time or null if not in combat.
+     * @return An integer of their remaining combat time in seconds or null if not in combat.
      */
     @Nullable
     public Integer getPlayerCombatTimer(@NotNull UUID uuid) {
-        return playersInCombat.get(uuid);
+        long remainingTicks = combatTracker.getRemainingTicks(uuid);
+        if(remainingTicks == CombatTracker.NOT_TAGGED) return null;
+
+        return getRemainingSeconds(remainingTicks);
+    }
+
+    /**
+     * Gets the combat tracker created by {@link #startTimerTask()}.
+     * @return The CombatTracker or null if the timer task was never started.
+     */
+    @Nullable
+    public CombatTracker getCombatTracker() {
+        return combatTracker;
+    }
+
+    /**
+     * Shows the combat timer to a player that was tagged or is still in combat, in the display mode they use.
+     * @param player The Player
+     * @param remainingTicks The remaining ticks of their tag.
+     */
+    @Override
+    public void onCombatTick(@NotNull Player player, long remainingTicks) {
+        switch(getDisplayMode(player.getUniqueId())) {
+            case ACTION_BAR -> sendActionBar(player, getRemainingSeconds(remainingTicks));
+            case BOSS_BAR -> bossBarDisplay.show(player, getRemainingSeconds(remainingTicks));
+            case OFF -> {}
+        }
+    }
+
+    /**
+     * Clears the combat timer display of a player whose combat timer ran out.
+     * @param uuid The UUID of the player.
+     * @param player The Player if online, otherwise null.
+     */
+    @Override
+    public void onCombatExpired(@NotNull UUID uuid, @Nullable Player player) {
+        combatStats.increment(CombatStats.Counter.EXPIRIES);
+
+        record(JournalRecord.Type.EXPIRE, uuid, 0L);
+        onLeftCombat(uuid, player, CombatLeaveEvent.Reason.EXPIRED);
+
+        clearDisplay(uuid, player);
+    }
+
+    /**
+     * Gets the display mode a player's combat timer is shown in.
+     * Safe to call from any thread.
+     * @param uuid The UUID of the player.
+     * @return The mode the player picked, otherwise the configured display mode.
+     */
+    @NotNull
+    public DisplayMode getDisplayMode(@NotNull UUID uuid) {
+        DisplayMode picked = displayModes.get(uuid);
+        if(picked != null) return picked;
+
+        Settings settings = settingsManager.getSettings();
+        return settings != null && settings.display() != null ? settings.display() : DisplayMode.ACTION_BAR;
+    }
+
+    /**
+     * Sets the display mode a player's combat timer is shown in, and clears what they were shown before.
+     * Kept until the player quits.
+     * Must be called on the thread that owns the player.
+     * @param player The Player
+     * @param mode The DisplayMode
+     */
+    public void setDisplayMode(@NotNull Player player, @NotNull DisplayMode mode) {
+        UUID uuid = player.getUniqueId();
+        clearDisplay(uuid, player);
+        displayModes.put(uuid, mode);
+    }
+
+    /**
+     * Forgets the display mode a player picked. Called when they quit.
+     * @param uuid The UUID of the player.
+     */
+    public void clearDisplayMode(@NotNull UUID uuid) {
+        displayModes.remove(uuid);
+    }
+
+    /**
+     * Clears the combat timer a player is shown, in whichever mode it is shown.
+     * @param uuid The UUID of the player.
+     * @param player The Player if online, otherwise null.
+     */
+    private void clearDisplay(@NotNull UUID uuid, @Nullable Player player) {
+        bossBarDisplay.hide(uuid, player);
+
+        // Other plugins may use the action bar, so it is only cleared if this plugin sent something to it.
+        if(sentActionBars.remove(uuid) != null && player != null && player.isOnline() && player.isConnected()) {
+            removeActionBar(player);
+        }
+    }
+
+    /**
+     * Converts remaining ticks into the remaining seconds, rounded up so a player never sees 0 while still tagged.
+     * @param remainingTicks The remaining ticks of a player's tag.
+     * @return The remaining seconds.
+     */
+    private int getRemainingSeconds(long remainingTicks) {
+        return (int) ((Math.max(0L, remainingTicks) + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND);
     }
 
     /**
      * Sends the player an action bar with their combat timer.
+     * The send is skipped if the player was last sent the same rendered action bar, unless the configured keep-alive
+     * interval has passed and it has to be re-sent so it does not fade.
      * @param player The Player
-     * @param uuid The Player's UUID
+     * @param time The player's remaining combat time in seconds.
      */
-    private void sendActionBar(@NotNull Player player, @NotNull UUID uuid) {
-        @NotNull Locale locale = localeManager.getLocale();
-        int time = playersInCombat.get(uuid);
-        String timeMessage = localeManager.getTimeMessage(time);
-        List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("time", timeMessage));
+    private void sendActionBar(@NotNull Player player, int time) {
+        Component actionBar = localeManager.getActionBar(player, time);
+
+        Settings settings = settingsManager.getSettings();
+        long keepAliveNanos = getActionBarKeepAliveTicks(settings) * MILLIS_PER_TICK * 1_000_000L;
+        long now = System.nanoTime();
+
+        // Only the thread that owns the player sends their action bar, so the entry itself needs no synchronization.
+        SentActionBar sent = sentActionBars.computeIfAbsent(player.getUniqueId(), uuid -> new SentActionBar());
+        if(keepAliveNanos > 0 && sent.component == actionBar && now - sent.sentAtNanos < keepAliveNanos) {
+            combatStats.increment(CombatStats.Counter.ACTION_BARS_SKIPPED);
+            return;
+        }
 
-        Component actionBar = FormatUtil.format(locale.actionBar(), placeholders);
+        sent.component = actionBar;
+        sent.sentAtNanos = now;
         player.sendActionBar(actionBar);
+        combatStats.increment(CombatStats.Counter.ACTION_BARS_SENT);
+    }
+
+    /**
+     * Gets how often an unchanged action bar is re-sent. Settings files from before the option existed use the default.
+     * @param settings The plugin's settings, may be null.
+     * @return The keep-alive interval in ticks, 0 to send every update.
+     */
+    private long getActionBarKeepAliveTicks(@Nullable Settings settings) {
+        if(settings == null || settings.actionBarKeepAliveTicks() == null) return DEFAULT_ACTION_BAR_KEEP_ALIVE_TICKS;
+
+        return Math.max(0, settings.actionBarKeepAliveTicks());
     }
 
     /**
@@ -157,40 +657,162 @@ public class CombatManager {
     }
 
     /**
-     * Starts the timer task that handles player's timers and sending action bars.
+     * Creates the combat tracker for the configured execution mode and store, and starts its timer(s).
+     * The region-threaded mode is always used on Folia.
+     * Changing the execution mode or store requires a restart.
+     * If enabled, the combat journal is replayed first so combat state from before a restart is restored when players join.
      */
-    private void startTimerTask() {
-        timerTask = skyCombatLog.getServer().getScheduler().runTaskTimer(skyCombatLog, () -> {
-            Iterator<Map.Entry<UUID, Integer>> iterator = playersInCombat.entrySet().iterator();
-            while(iterator.hasNext()) {
-                Map.Entry<UUID, Integer> entry = iterator.next();
-                UUID uuid = entry.getKey();
-                Player player = skyCombatLog.getServer().getPlayer(uuid);
+    public void startTimerTask() {
+        if(combatTracker != null) {
+            combatTracker.start();
+            if(sweeperTask == null) startSweeperTask();
+            return;
+        }
 
-                if(player != null && player.isOnline() && player.isConnected()) {
-                    int time = entry.getValue() - 1;
+        Settings settings = settingsManager.getSettings();
+        ExecutionMode executionMode = settings != null && settings.executionMode() != null ? settings.executionMode() : ExecutionMode.BUKKIT;
+        if(isFolia()) executionMode = ExecutionMode.REGIONIZED;
 
-                    if(time <= 0) {
-                        iterator.remove();
+        combatTracker = switch(executionMode) {
+            case BUKKIT -> new BukkitCombatTracker(skyCombatLog, this, createCombatStore(settings), combatStats, getTimerScheduling(settings));
+            case REGIONIZED -> new RegionizedCombatTracker(skyCombatLog, this, combatStats);
+        };
 
-                        removeActionBar(player);
-                    } else {
-                        playersInCombat.put(uuid, time);
+        CombatTracker tracker = combatTracker;
+        combatStats.registerGauge("tagged_players", tracker::size);
+        combatStats.registerGauge("tagged_players_bytes", tracker::estimateFootprintBytes);
+        combatStats.registerGauge("killed_players", killedPlayers::size);
+        combatStats.registerGauge("killed_players_bytes", killedPlayers::estimateFootprintBytes);
+        combatStats.registerGauge("boss_bar_viewers", bossBarDisplay::size);
 
-                        sendActionBar(player, uuid);
-                    }
-                }
-            }
-        }, 0L, 20L);
+        if(settings != null && settings.combatJournal()) {
+            startCombatJournal();
+        }
+
+        if(settings != null && settings.replication() != null && settings.replication().enabled()) {
+            startReplication(settings.replication());
+        }
+
+        combatTracker.start();
+        startSweeperTask();
+    }
+
+    /**
+     * Replays the combat journal into the restored state and starts its writer.
+     */
+    private void startCombatJournal() {
+        combatJournal = new CombatJournal(skyCombatLog, combatStats);
+        combatJournal.replay();
+
+        restoredTags.putAll(combatJournal.getRestoredTags());
+        restoredKills.putAll(combatJournal.getRestoredKills());
+
+        combatJournal.start();
+    }
+
+    /**
+     * Creates the configured transport and starts replicating combat state to the other servers of the network.
+     * @param replication The replication settings.
+     */
+    private void startReplication(@NotNull Settings.Replication replication) {
+        long serverId = ThreadLocalRandom.current().nextLong();
+        TransportType transportType = replication.transport() != null ? replication.transport() : TransportType.PLUGIN_MESSAGE;
+        String directory = replication.directory() != null ? replication.directory() : "skycombatlog-replication";
+
+        ReplicationTransport transport = switch(transportType) {
+            case PLUGIN_MESSAGE -> new PluginMessageTransport(skyCombatLog);
+            case FILE -> new FileTransport(skyCombatLog, Path.of(directory), Long.toHexString(serverId));
+            case LOOPBACK -> new LoopbackTransport();
+        };
+
+        handoffGraceTicks = Math.max(1, replication.transferGraceTicks());
+        combatReplicator = new CombatReplicator(skyCombatLog, serverId, transport, combatStats);
+        combatReplicator.start(this);
     }
 
     /**
-     * Stops the timer task that handles player's timers and sending action bars.
+     * Starts the task that periodically evicts tags of players that are no longer online and expired killed markers.
+     * Runs on the global region scheduler, which is the main thread outside of Folia.
+     */
+    private void startSweeperTask() {
+        sweeperTask = skyCombatLog.getServer().getGlobalRegionScheduler().runAtFixedRate(skyCombatLog, task -> {
+            combatTracker.sweepOrphans();
+            killedPlayers.purge();
+            sentActionBars.keySet().removeIf(uuid -> !combatTracker.isTagged(uuid));
+            bossBarDisplay.sweep(combatTracker::isTagged);
+            refreshEventTicks.keySet().removeIf(uuid -> !combatTracker.isTagged(uuid));
+            attackerHistories.keySet().removeIf(uuid -> !combatTracker.isTagged(uuid));
+        }, SWEEP_PERIOD_TICKS, SWEEP_PERIOD_TICKS);
+    }
+
+    /**
+     * Creates the store the main thread tracker keeps deadlines in.
+     * @param settings The plugin's settings, may be null.
+     * @return A CombatStore
+     */
+    @NotNull
+    private CombatStore createCombatStore(@Nullable Settings settings) {
+        StoreType storeType = settings != null && settings.combatStore() != null ? settings.combatStore() : StoreType.TIMING_WHEEL;
+
+        return switch(storeType) {
+            case TIMING_WHEEL -> new WheelCombatStore();
+            case PACKED -> new PackedCombatStore();
+        };
+    }
+
+    /**
+     * Gets how the main thread tracker spreads per-second updates.
+     * @param settings The plugin's settings, may be null.
+     * @return The TimerScheduling
+     */
+    @NotNull
+    private TimerScheduling getTimerScheduling(@Nullable Settings settings) {
+        return settings != null && settings.timerScheduling() != null ? settings.timerScheduling() : TimerScheduling.ALIGNED;
+    }
+
+    /**
+     * Stops the timer task that handles player's timers and sending action bars and flushes the combat journal.
      */
     public void stopTimerTask() {
-        if(timerTask != null && !timerTask.isCancelled()) {
-            timerTask.cancel();
-            timerTask = null;
+        if(combatTracker != null) {
+            combatTracker.stop();
+        }
+
+        bossBarDisplay.hideAll(skyCombatLog.getServer()::getPlayer);
+
+        if(sweeperTask != null) {
+            sweeperTask.cancel();
+            sweeperTask = null;
+        }
+
+        if(combatReplicator != null) {
+            combatReplicator.stop();
+            combatReplicator = null;
+        }
+
+        if(combatJournal != null) {
+            combatJournal.stop();
+        }
+    }
+
+    /**
+     * The last action bar sent to a player and when it was sent.
+     */
+    private static final class SentActionBar {
+        private Component component;
+        private long sentAtNanos;
+    }
+
+    /**
+     * Checks if the server is running Folia.
+     * @return true if running on Folia, false if not.
+     */
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
         }
     }
 }
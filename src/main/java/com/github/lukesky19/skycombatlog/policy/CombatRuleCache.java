@@ -0,0 +1,90 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.policy;
+
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the combat time each player resolves to, so a hit does not check permissions.
+ * An entry is only used while the player is in the world and under the rules it was resolved for, so world changes and
+ * reloads miss on their own. Entries are also dropped on join, quit, and when the server re-sends a player's commands,
+ * which is what happens after their permissions or op status change.
+ */
+public class CombatRuleCache {
+    private final SettingsManager settingsManager;
+    private final Map<UUID, ResolvedRule> resolvedRules = new ConcurrentHashMap<>();
+
+    /**
+     * The combat time a player resolved to.
+     * @param rules The CombatRules it was resolved under.
+     * @param world The World it was resolved in, may be null.
+     * @param durationTicks The combat time in ticks, 0 if the player is not put into combat.
+     */
+    private record ResolvedRule(@NotNull CombatRules rules, @Nullable World world, long durationTicks) {}
+
+    /**
+     * Constructor
+     * @param settingsManager A SettingsManager instance.
+     */
+    public CombatRuleCache(SettingsManager settingsManager) {
+        this.settingsManager = settingsManager;
+    }
+
+    /**
+     * Gets how long a player is put into combat for where they are now.
+     * Must be called on the thread that owns the player.
+     * @param player The Player
+     * @return The combat time in ticks, 0 if the player bypasses combat or combat is disabled in their world.
+     */
+    public long getDurationTicks(@NotNull Player player) {
+        CombatRules rules = settingsManager.getCombatRules();
+        World world = player.getWorld();
+        UUID uuid = player.getUniqueId();
+
+        ResolvedRule resolved = resolvedRules.get(uuid);
+        if(resolved != null && resolved.rules() == rules && resolved.world() == world) return resolved.durationTicks();
+
+        long durationTicks = player.hasPermission(CombatRules.BYPASS_PERMISSION) ? 0L : rules.getDurationTicks(world);
+        resolvedRules.put(uuid, new ResolvedRule(rules, world, durationTicks));
+        return durationTicks;
+    }
+
+    /**
+     * Drops the cached combat time of a player, so it is resolved again on their next hit.
+     * @param uuid The UUID of the player.
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        resolvedRules.remove(uuid);
+    }
+
+    /**
+     * Gets the number of cached players.
+     * @return The number of cached players.
+     */
+    public int size() {
+        return resolvedRules.size();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.policy;
+
+import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The combat rules from settings.yml compiled into a lookup table at reload.
+ * Resolving the combat time of a world is one map lookup by world name. Checking the bypass permission is left to the
+ * {@link CombatRuleCache}, so it is not done on every hit.
+ */
+public final class CombatRules {
+    /**
+     * The permission that keeps a player from being put into combat.
+     */
+    public static final String BYPASS_PERMISSION = "skycombatlog.bypass";
+    /**
+     * The rules used before settings.yml has loaded. Nobody is put into combat.
+     */
+    public static final CombatRules EMPTY = new CombatRules(0L, Map.of());
+
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final long defaultDurationTicks;
+    private final Map<String, Long> worldDurationTicks;
+
+    /**
+     * Constructor
+     * @param defaultDurationTicks The combat time in ticks in worlds without their own entry.
+     * @param worldDurationTicks The combat time in ticks, keyed by world name.
+     */
+    private CombatRules(long defaultDurationTicks, @NotNull Map<String, Long> worldDurationTicks) {
+        this.defaultDurationTicks = defaultDurationTicks;
+        this.worldDurationTicks = worldDurationTicks;
+    }
+
+    /**
+     * Compiles the combat rules from settings.yml. Worlds without their own entry use the combat-time.
+     * @param settings The plugin's Settings
+     * @return A CombatRules
+     */
+    @NotNull
+    public static CombatRules compile(@NotNull Settings settings) {
+        Map<String, Long> worldDurationTicks = new HashMap<>();
+        if(settings.worldCombatTimes() != null) {
+            settings.worldCombatTimes().forEach((worldName, seconds) -> {
+                if(seconds != null) worldDurationTicks.put(worldName, Math.max(0L, (long) seconds * TICKS_PER_SECOND));
+            });
+        }
+
+        return new CombatRules((long) settings.combatTime() * TICKS_PER_SECOND, Map.copyOf(worldDurationTicks));
+    }
+
+    /**
+     * Gets the combat time of a world.
+     * @param world The World, may be null.
+     * @return The combat time in ticks, 0 if players are not put into combat in the world.
+     */
+    public long getDurationTicks(@Nullable World world) {
+        if(world == null || worldDurationTicks.isEmpty()) return defaultDurationTicks;
+
+        return worldDurationTicks.getOrDefault(world.getName(), defaultDurationTicks);
+    }
+}
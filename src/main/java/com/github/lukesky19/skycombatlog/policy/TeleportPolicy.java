@@ -0,0 +1,139 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.policy;
+
+import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.util.ExpiringSet;
+import net.kyori.adventure.text.Component;
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The teleport rules from settings.yml compiled into lookup tables at reload.
+ * Checking a teleport is one map lookup by world name and one array lookup by cause.
+ * Also holds the pre-rendered denial message and limits how often it is sent to each player.
+ */
+public final class TeleportPolicy {
+    private static final List<PlayerTeleportEvent.TeleportCause> DEFAULT_BLOCKED_CAUSES = List.of(
+            PlayerTeleportEvent.TeleportCause.COMMAND,
+            PlayerTeleportEvent.TeleportCause.PLUGIN,
+            PlayerTeleportEvent.TeleportCause.UNKNOWN);
+    private static final int DEFAULT_DENIAL_MESSAGE_COOLDOWN_TICKS = 20;
+    private static final long MILLIS_PER_TICK = 50L;
+    private static final int MAX_THROTTLED_PLAYERS = 4096;
+
+    private final boolean[] defaultBlocked;
+    private final Map<String, boolean[]> worldBlocked;
+    private final Component denialMessage;
+    private final @Nullable ExpiringSet<UUID> deniedPlayers;
+
+    /**
+     * Constructor
+     * @param defaultBlocked Whether each cause, indexed by ordinal, is blocked in worlds without their own rules.
+     * @param worldBlocked Whether each cause, indexed by ordinal, is blocked, keyed by world name.
+     * @param denialMessage The message sent when a teleport is blocked.
+     * @param denialMessageCooldownTicks The minimum number of ticks between denial messages to the same player.
+     */
+    private TeleportPolicy(boolean[] defaultBlocked, @NotNull Map<String, boolean[]> worldBlocked, @NotNull Component denialMessage, int denialMessageCooldownTicks) {
+        this.defaultBlocked = defaultBlocked;
+        this.worldBlocked = worldBlocked;
+        this.denialMessage = denialMessage;
+        this.deniedPlayers = denialMessageCooldownTicks > 0 ? new ExpiringSet<>(denialMessageCooldownTicks * MILLIS_PER_TICK, MAX_THROTTLED_PLAYERS) : null;
+    }
+
+    /**
+     * Compiles the teleport rules from settings.yml. Missing rules block command, plugin and unknown teleports.
+     * @param rules The TeleportRules from settings.yml, may be null.
+     * @param denialMessage The pre-rendered message sent when a teleport is blocked.
+     * @return A TeleportPolicy
+     */
+    @NotNull
+    public static TeleportPolicy compile(@Nullable Settings.TeleportRules rules, @NotNull Component denialMessage) {
+        if(rules == null) {
+            return new TeleportPolicy(toTable(DEFAULT_BLOCKED_CAUSES), Map.of(), denialMessage, DEFAULT_DENIAL_MESSAGE_COOLDOWN_TICKS);
+        }
+
+        boolean[] defaultBlocked = toTable(rules.blockedCauses() != null ? rules.blockedCauses() : DEFAULT_BLOCKED_CAUSES);
+
+        Map<String, boolean[]> worldBlocked = new HashMap<>();
+        if(rules.worlds() != null) {
+            rules.worlds().forEach((worldName, causes) -> worldBlocked.put(worldName, toTable(causes != null ? causes : List.of())));
+        }
+
+        return new TeleportPolicy(defaultBlocked, worldBlocked, denialMessage, rules.denialMessageCooldownTicks());
+    }
+
+    /**
+     * Checks if a teleport out of a world with a cause is blocked for players in combat.
+     * @param world The world the player teleports from, may be null.
+     * @param cause The TeleportCause
+     * @return true if blocked, false if not.
+     */
+    public boolean isBlocked(@Nullable World world, @NotNull PlayerTeleportEvent.TeleportCause cause) {
+        boolean[] blocked = defaultBlocked;
+        if(world != null && !worldBlocked.isEmpty()) {
+            blocked = worldBlocked.getOrDefault(world.getName(), defaultBlocked);
+        }
+
+        return blocked[cause.ordinal()];
+    }
+
+    /**
+     * Gets the pre-rendered message sent when a teleport is blocked.
+     * @return A Component
+     */
+    @NotNull
+    public Component getDenialMessage() {
+        return denialMessage;
+    }
+
+    /**
+     * Checks if the denial message may be sent to a player and starts their cooldown if so.
+     * Safe to call from any thread.
+     * @param uuid The UUID of the player.
+     * @return true if the message should be sent, false if the player was sent one within the cooldown.
+     */
+    public boolean tryDenialMessage(@NotNull UUID uuid) {
+        if(deniedPlayers == null) return true;
+        if(deniedPlayers.contains(uuid)) return false;
+
+        deniedPlayers.add(uuid);
+        return true;
+    }
+
+    /**
+     * Converts a list of causes into a table indexed by the ordinal of the cause.
+     * @param causes The causes to block.
+     * @return The table.
+     */
+    private static boolean[] toTable(@NotNull List<PlayerTeleportEvent.TeleportCause> causes) {
+        boolean[] table = new boolean[PlayerTeleportEvent.TeleportCause.values().length];
+        for(PlayerTeleportEvent.TeleportCause cause : causes) {
+            if(cause != null) table[cause.ordinal()] = true;
+        }
+
+        return table;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.punishment;
+
+/**
+ * What happens to players that log out in combat while the server is stopping or many players disconnect at once,
+ * e.g. when the proxy restarts.
+ */
+public enum DeferredPolicy {
+    /**
+     * The action chain is skipped, and the player is killed when they next join.
+     */
+    KILL_ON_REJOIN,
+    /**
+     * The player is not punished.
+     */
+    PARDON
+}
@@ -0,0 +1,41 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.punishment;
+
+/**
+ * An action taken against a player that logged out in combat.
+ */
+public enum PunishmentAction {
+    /**
+     * The player is killed. If the tick's budget is used up, they are killed when they next join instead.
+     */
+    KILL,
+    /**
+     * The player's items are taken out of their inventory and put into chests where they logged out, instead of being
+     * dropped on death.
+     */
+    DROP_TO_CHEST,
+    /**
+     * The configured console commands are run.
+     */
+    COMMAND,
+    /**
+     * The player is banned for the configured time.
+     */
+    TEMP_BAN
+}
@@ -0,0 +1,423 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.punishment;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skylib.format.FormatUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.block.Block;
+import org.bukkit.block.Chest;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Carries out the configured punishment of players that log out in combat without doing all of it inside the quit event.
+ * The pending kill is recorded by the caller first, so it survives a crash. The player is then killed inline only while
+ * the tick's time budget lasts, and killed when they next join otherwise. Actions that do not need the player online
+ * are queued and drained on the global region thread, one tick's budget at a time.
+ * Players handed off to the network that never arrived are punished offline: their kill and item drop wait until they
+ * next join this server.
+ * While the server is stopping, or while many players disconnect at once, the action chain is replaced by the
+ * configured {@link DeferredPolicy}.
+ */
+public class PunishmentPipeline {
+    private static final List<PunishmentAction> DEFAULT_ACTIONS = List.of(PunishmentAction.KILL);
+    private static final int DEFAULT_TICK_BUDGET_MICROS = 2000;
+    private static final int DEFAULT_MASS_DISCONNECT_THRESHOLD = 20;
+    private static final int DEFAULT_MASS_DISCONNECT_WINDOW_TICKS = 20;
+    private static final int CHEST_SLOTS = 27;
+    private static final int MAX_CHEST_SEARCH_HEIGHT = 8;
+
+    private final SkyCombatLog skyCombatLog;
+    private final SettingsManager settingsManager;
+    private final CombatManager combatManager;
+    private final CombatStats combatStats;
+    private final Queue<PunishmentJob> queuedJobs = new ConcurrentLinkedQueue<>();
+    private final Set<UUID> pendingDrops = ConcurrentHashMap.newKeySet();
+    private @Nullable ScheduledTask drainTask;
+
+    // Guarded by this.
+    private int budgetTick = Integer.MIN_VALUE;
+    private long usedBudgetNanos;
+    private int windowStartTick = Integer.MIN_VALUE;
+    private int quitsInWindow;
+
+    /**
+     * A queued action against a player that logged out in combat.
+     * @param uuid The UUID of the player.
+     * @param name The name of the player.
+     * @param action The action to carry out.
+     * @param location Where the player logged out, for {@link PunishmentAction#DROP_TO_CHEST}.
+     * @param items The items taken from the player, for {@link PunishmentAction#DROP_TO_CHEST}.
+     */
+    private record PunishmentJob(
+            @NotNull UUID uuid,
+            @NotNull String name,
+            @NotNull PunishmentAction action,
+            @Nullable Location location,
+            @Nullable List<ItemStack> items) {}
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin.
+     * @param settingsManager A SettingsManager instance.
+     * @param combatManager A CombatManager instance.
+     * @param combatStats A CombatStats instance.
+     */
+    public PunishmentPipeline(SkyCombatLog skyCombatLog, SettingsManager settingsManager, CombatManager combatManager, CombatStats combatStats) {
+        this.skyCombatLog = skyCombatLog;
+        this.settingsManager = settingsManager;
+        this.combatManager = combatManager;
+        this.combatStats = combatStats;
+    }
+
+    /**
+     * Starts the task that drains queued actions every tick.
+     */
+    public void start() {
+        if(drainTask != null) return;
+
+        combatStats.registerGauge("queued_punishments", queuedJobs::size);
+        drainTask = skyCombatLog.getServer().getGlobalRegionScheduler().runAtFixedRate(skyCombatLog, task -> drain(), 1L, 1L);
+    }
+
+    /**
+     * Stops draining and runs every queued action that is still waiting, ignoring the budget, so nothing is lost.
+     */
+    public void stop() {
+        if(drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+
+        PunishmentJob job;
+        while((job = queuedJobs.poll()) != null) {
+            run(job);
+        }
+    }
+
+    /**
+     * Counts a player disconnecting, in combat or not, towards mass-disconnect detection.
+     * Safe to call from any thread.
+     */
+    public synchronized void recordQuit() {
+        Settings.Punishment punishment = getPunishment();
+        int windowTicks = punishment != null && punishment.massDisconnectWindowTicks() > 0 ? punishment.massDisconnectWindowTicks() : DEFAULT_MASS_DISCONNECT_WINDOW_TICKS;
+        int currentTick = skyCombatLog.getServer().getCurrentTick();
+
+        if(currentTick - windowStartTick >= windowTicks) {
+            windowStartTick = currentTick;
+            quitsInWindow = 0;
+        }
+
+        quitsInWindow++;
+    }
+
+    /**
+     * Punishes a player that logged out in combat. Must be called from the quit event, while the player is still on
+     * the server, after the pending kill was recorded.
+     * @param player The Player that logged out.
+     * @param uuid The UUID of the player.
+     */
+    public void punish(@NotNull Player player, @NotNull UUID uuid) {
+        Settings.Punishment punishment = getPunishment();
+        if(applyDeferredPolicy(punishment, uuid)) return;
+
+        List<PunishmentAction> actions = getActions(punishment);
+        String name = player.getName();
+
+        // Items are taken before any kill, so they end up in the chest instead of on the ground.
+        if(actions.contains(PunishmentAction.DROP_TO_CHEST)) {
+            List<ItemStack> items = takeItems(player);
+            if(!items.isEmpty()) {
+                queuedJobs.add(new PunishmentJob(uuid, name, PunishmentAction.DROP_TO_CHEST, player.getLocation(), items));
+            }
+        }
+
+        for(PunishmentAction action : actions) {
+            switch(action) {
+                case KILL -> kill(player, uuid);
+                case COMMAND, TEMP_BAN -> queuedJobs.add(new PunishmentJob(uuid, name, action, null, null));
+                case DROP_TO_CHEST -> {}
+            }
+        }
+    }
+
+    /**
+     * Punishes a player that logged out in combat and is no longer on the server, for example one handed off to the
+     * network that did not show up on another server in time. Must be called after the pending kill was recorded.
+     * The kill is carried out and the items are taken when the player next joins this server, the other actions are
+     * queued like for a player punished on quit.
+     * @param uuid The UUID of the player.
+     * @param name The name of the player.
+     */
+    public void punishOffline(@NotNull UUID uuid, @NotNull String name) {
+        Settings.Punishment punishment = getPunishment();
+        if(applyDeferredPolicy(punishment, uuid)) return;
+
+        for(PunishmentAction action : getActions(punishment)) {
+            switch(action) {
+                case KILL -> combatManager.deferKill(uuid);
+                case COMMAND, TEMP_BAN -> queuedJobs.add(new PunishmentJob(uuid, name, action, null, null));
+                case DROP_TO_CHEST -> pendingDrops.add(uuid);
+            }
+        }
+    }
+
+    /**
+     * Carries out the item drop of a player punished offline, at the location they joined at.
+     * Must be called from the join event, before the player's pending kill is carried out.
+     * @param player The Player that joined.
+     * @param uuid The UUID of the player.
+     */
+    public void restorePlayer(@NotNull Player player, @NotNull UUID uuid) {
+        if(pendingDrops.isEmpty() || !pendingDrops.remove(uuid)) return;
+
+        List<ItemStack> items = takeItems(player);
+        if(!items.isEmpty()) {
+            queuedJobs.add(new PunishmentJob(uuid, player.getName(), PunishmentAction.DROP_TO_CHEST, player.getLocation(), items));
+        }
+    }
+
+    /**
+     * Replaces the action chain with the configured {@link DeferredPolicy} if punishments are being deferred.
+     * @param punishment The punishment settings, may be null.
+     * @param uuid The UUID of the player.
+     * @return true if the deferred policy was applied and no action should run, false if not.
+     */
+    private boolean applyDeferredPolicy(@Nullable Settings.Punishment punishment, @NotNull UUID uuid) {
+        if(!isDeferring(punishment)) return false;
+
+        combatStats.increment(CombatStats.Counter.DEFERRED_PUNISHMENTS);
+
+        DeferredPolicy deferredPolicy = punishment != null && punishment.deferredPolicy() != null ? punishment.deferredPolicy() : DeferredPolicy.KILL_ON_REJOIN;
+        switch(deferredPolicy) {
+            case KILL_ON_REJOIN -> combatManager.deferKill(uuid);
+            case PARDON -> combatManager.removePlayerKilled(uuid);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the configured punishment actions.
+     * @param punishment The punishment settings, may be null.
+     * @return The actions, in order.
+     */
+    @NotNull
+    private List<PunishmentAction> getActions(@Nullable Settings.Punishment punishment) {
+        return punishment != null && punishment.actions() != null ? punishment.actions() : DEFAULT_ACTIONS;
+    }
+
+    /**
+     * Kills a player inside the quit event if the tick's budget allows it, otherwise when they next join.
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     */
+    private void kill(@NotNull Player player, @NotNull UUID uuid) {
+        if(!hasBudget()) {
+            combatStats.increment(CombatStats.Counter.DEFERRED_PUNISHMENTS);
+            combatManager.deferKill(uuid);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        player.setHealth(0);
+        charge(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Runs queued actions until the tick's budget is used up. At least one action runs per tick, so the queue always
+     * drains.
+     */
+    private void drain() {
+        PunishmentJob job = queuedJobs.poll();
+        while(job != null) {
+            long startNanos = System.nanoTime();
+            run(job);
+            charge(System.nanoTime() - startNanos);
+
+            if(!hasBudget()) return;
+            job = queuedJobs.poll();
+        }
+    }
+
+    /**
+     * Carries out a queued action.
+     * @param job The PunishmentJob
+     */
+    private void run(@NotNull PunishmentJob job) {
+        Settings.Punishment punishment = getPunishment();
+        Server server = skyCombatLog.getServer();
+
+        switch(job.action()) {
+            case COMMAND -> {
+                if(punishment == null || punishment.commands() == null) return;
+
+                for(String command : punishment.commands()) {
+                    server.dispatchCommand(server.getConsoleSender(), command.replace("<player>", job.name()));
+                }
+            }
+            case TEMP_BAN -> {
+                int minutes = punishment != null ? punishment.tempBanMinutes() : 0;
+                if(minutes <= 0) return;
+
+                String reason = punishment.tempBanReason() != null ? punishment.tempBanReason() : "Logging out in combat";
+                server.getOfflinePlayer(job.uuid()).ban(reason, Duration.ofMinutes(minutes), skyCombatLog.getName());
+            }
+            case DROP_TO_CHEST -> {
+                Location location = job.location();
+                List<ItemStack> items = job.items();
+                if(location == null || items == null) return;
+
+                if(server.isOwnedByCurrentRegion(location)) {
+                    placeChests(location, items);
+                } else {
+                    server.getRegionScheduler().execute(skyCombatLog, location, () -> placeChests(location, items));
+                }
+            }
+            case KILL -> {}
+        }
+
+        combatStats.increment(CombatStats.Counter.PUNISHMENT_ACTIONS);
+    }
+
+    /**
+     * Takes every item out of a player's inventory.
+     * @param player The Player
+     * @return Copies of the items taken.
+     */
+    @NotNull
+    private List<ItemStack> takeItems(@NotNull Player player) {
+        List<ItemStack> items = new ArrayList<>();
+        for(ItemStack item : player.getInventory().getContents()) {
+            if(item != null && !item.getType().isAir()) items.add(item.clone());
+        }
+
+        player.getInventory().clear();
+        return items;
+    }
+
+    /**
+     * Puts items into chests placed in the first air blocks at and above a location. Items that do not fit are dropped.
+     * Only air is replaced, so liquids, plants and blocks other plugins may protect are left alone.
+     * Must be called on the thread that owns the location.
+     * @param location The Location
+     * @param items The items.
+     */
+    private void placeChests(@NotNull Location location, @NotNull List<ItemStack> items) {
+        int placed = 0;
+        Block block = location.getBlock();
+
+        for(int height = 0; height < MAX_CHEST_SEARCH_HEIGHT && placed < items.size(); height++, block = block.getRelative(0, 1, 0)) {
+            if(!block.getType().isAir()) continue;
+
+            BlockData previous = block.getBlockData();
+            block.setType(Material.CHEST);
+            if(!(block.getState() instanceof Chest chest)) {
+                block.setBlockData(previous);
+                continue;
+            }
+
+            int end = Math.min(items.size(), placed + CHEST_SLOTS);
+            chest.getBlockInventory().addItem(items.subList(placed, end).toArray(new ItemStack[0]));
+            placed = end;
+        }
+
+        List<ItemStack> leftovers = items.subList(placed, items.size());
+        if(!leftovers.isEmpty() && location.getWorld() != null) {
+            skyCombatLog.getComponentLogger().warn(FormatUtil.format("<yellow>No room for a chest for " + leftovers.size() + " items, they were dropped instead.</yellow>"));
+            for(ItemStack item : leftovers) {
+                location.getWorld().dropItemNaturally(location, item);
+            }
+        }
+    }
+
+    /**
+     * Checks if punishments are replaced by the deferred policy, because the server is stopping or many players
+     * disconnected within the configured window.
+     * @param punishment The punishment settings, may be null.
+     * @return true if deferring, false if not.
+     */
+    private synchronized boolean isDeferring(@Nullable Settings.Punishment punishment) {
+        if(skyCombatLog.getServer().isStopping()) return true;
+
+        int threshold = punishment != null && punishment.massDisconnectThreshold() > 0 ? punishment.massDisconnectThreshold() : DEFAULT_MASS_DISCONNECT_THRESHOLD;
+        return quitsInWindow >= threshold;
+    }
+
+    /**
+     * Checks if any of the current tick's budget is left.
+     * @return true if budget is left, false if not.
+     */
+    private synchronized boolean hasBudget() {
+        resetBudgetIfNewTick();
+
+        Settings.Punishment punishment = getPunishment();
+        long budgetNanos = (punishment != null && punishment.tickBudgetMicros() > 0 ? punishment.tickBudgetMicros() : DEFAULT_TICK_BUDGET_MICROS) * 1000L;
+        return usedBudgetNanos < budgetNanos;
+    }
+
+    /**
+     * Charges time spent punishing to the current tick's budget.
+     * @param nanos The time spent in nanoseconds.
+     */
+    private synchronized void charge(long nanos) {
+        resetBudgetIfNewTick();
+        usedBudgetNanos += nanos;
+    }
+
+    /**
+     * Starts a fresh budget when the server moved on to another tick.
+     */
+    private void resetBudgetIfNewTick() {
+        int currentTick = skyCombatLog.getServer().getCurrentTick();
+        if(currentTick != budgetTick) {
+            budgetTick = currentTick;
+            usedBudgetNanos = 0L;
+        }
+    }
+
+    /**
+     * Gets the punishment settings.
+     * @return The punishment settings or null if not configured.
+     */
+    @Nullable
+    private Settings.Punishment getPunishment() {
+        Settings settings = settingsManager.getSettings();
+        return settings != null ? settings.punishment() : null;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.journal.JournalRecord;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Replicates combat state to the other servers of a network.
+ * Updates are coalesced per player, so however many times a player is hit in a tick, only their latest tag state and
+ * latest kill state are sent. Once a tick the pending updates are encoded into batches and handed to the transport.
+ */
+public class CombatReplicator {
+    private final SkyCombatLog skyCombatLog;
+    private final ReplicationTransport transport;
+    private final CombatStats combatStats;
+    private final long serverId;
+    // Tag state (tag, refresh, expire) and kill state (pending kill, kill cleared) coalesce separately.
+    private final LinkedHashMap<UUID, JournalRecord> pendingTags = new LinkedHashMap<>();
+    private final LinkedHashMap<UUID, JournalRecord> pendingKills = new LinkedHashMap<>();
+    private ScheduledTask flushTask;
+
+    /**
+     * Receives updates replicated from other servers.
+     */
+    public interface UpdateHandler {
+        /**
+         * Called for every update received from another server. May be called from any thread.
+         * @param update The update.
+         */
+        void onRemoteUpdate(@NotNull JournalRecord update);
+    }
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     * @param serverId A random id for this server, used to ignore its own batches.
+     * @param transport The ReplicationTransport to send and receive batches through.
+     * @param combatStats The CombatStats to count replicated updates in.
+     */
+    public CombatReplicator(SkyCombatLog skyCombatLog, long serverId, ReplicationTransport transport, CombatStats combatStats) {
+        this.skyCombatLog = skyCombatLog;
+        this.serverId = serverId;
+        this.transport = transport;
+        this.combatStats = combatStats;
+    }
+
+    /**
+     * Starts the transport and the task that flushes pending updates every tick.
+     * @param handler The UpdateHandler to pass updates from other servers to.
+     */
+    public void start(@NotNull UpdateHandler handler) {
+        transport.start(bytes -> receive(bytes, handler));
+
+        flushTask = skyCombatLog.getServer().getGlobalRegionScheduler().runAtFixedRate(skyCombatLog, task -> flush(), 1L, 1L);
+    }
+
+    /**
+     * Flushes any pending updates and stops the transport.
+     */
+    public void stop() {
+        if(flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        flush();
+        transport.stop();
+    }
+
+    /**
+     * Queues an update to be sent with the next flush, replacing any update for the same player and state queued this tick.
+     * Safe to call from any thread.
+     * @param type The type of update.
+     * @param uuid The UUID of the player.
+     * @param expiry The wall-clock time in epoch milliseconds the update stops applying, 0 for expire and clear updates.
+     */
+    public void record(@NotNull JournalRecord.Type type, @NotNull UUID uuid, long expiry) {
+        JournalRecord update = new JournalRecord(type, uuid, expiry);
+        boolean killState = type == JournalRecord.Type.PENDING_KILL || type == JournalRecord.Type.KILL_CLEARED;
+
+        synchronized(this) {
+            (killState ? pendingKills : pendingTags).put(uuid, update);
+        }
+    }
+
+    /**
+     * Encodes the pending updates into batches and sends them.
+     */
+    private void flush() {
+        List<JournalRecord> updates;
+        synchronized(this) {
+            if(pendingTags.isEmpty() && pendingKills.isEmpty()) return;
+
+            updates = new ArrayList<>(pendingTags.size() + pendingKills.size());
+            updates.addAll(pendingTags.values());
+            updates.addAll(pendingKills.values());
+            pendingTags.clear();
+            pendingKills.clear();
+        }
+
+        for(int from = 0; from < updates.size(); from += ReplicationCodec.MAX_UPDATES_PER_BATCH) {
+            int to = Math.min(updates.size(), from + ReplicationCodec.MAX_UPDATES_PER_BATCH);
+            transport.send(ReplicationCodec.encode(serverId, updates.subList(from, to)));
+        }
+
+        combatStats.add(CombatStats.Counter.REPLICATED_UPDATES_SENT, updates.size());
+    }
+
+    /**
+     * Decodes a batch from another server and passes its updates to the handler.
+     * @param bytes The encoded batch.
+     * @param handler The UpdateHandler
+     */
+    private void receive(byte[] bytes, @NotNull UpdateHandler handler) {
+        ReplicationCodec.Batch batch = ReplicationCodec.decode(bytes);
+        if(batch == null || batch.origin() == serverId) return;
+
+        for(JournalRecord update : batch.updates()) {
+            handler.onRemoteUpdate(update);
+        }
+
+        combatStats.add(CombatStats.Counter.REPLICATED_UPDATES_RECEIVED, batch.updates().size());
+    }
+}
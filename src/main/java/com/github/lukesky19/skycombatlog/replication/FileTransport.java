@@ -0,0 +1,142 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skylib.format.FormatUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A transport that writes each batch to its own file in a directory shared by every server, and polls that directory
+ * for batches written by the others. Files are written to a temporary name and moved into place, so readers never see
+ * a partial batch. Each server deletes its own batches once they are old enough that every reader has seen them.
+ * All file I/O happens on the async scheduler.
+ */
+public class FileTransport implements ReplicationTransport {
+    private static final String EXTENSION = ".batch";
+    private static final long POLL_INTERVAL_MILLIS = 250L;
+    private static final long BATCH_TTL_MILLIS = 30_000L;
+
+    private final SkyCombatLog skyCombatLog;
+    private final Path directory;
+    private final String prefix;
+    // Only touched by the poll task.
+    private final Set<String> seenFiles = new HashSet<>();
+    private long sequence;
+    private volatile Consumer<byte[]> receiver;
+    private ScheduledTask pollTask;
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     * @param directory The directory shared by every server.
+     * @param serverId A name unique to this server, used to tell its own batch files apart.
+     */
+    public FileTransport(SkyCombatLog skyCombatLog, @NotNull Path directory, @NotNull String serverId) {
+        this.skyCombatLog = skyCombatLog;
+        this.directory = directory;
+        this.prefix = serverId + "-";
+    }
+
+    @Override
+    public void start(@NotNull Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to create the replication directory " + directory + ".</red>"));
+            return;
+        }
+
+        pollTask = skyCombatLog.getServer().getAsyncScheduler().runAtFixedRate(skyCombatLog, task -> poll(), POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void send(byte[] batch) {
+        String fileName = prefix + System.currentTimeMillis() + "-" + (sequence++) + EXTENSION;
+
+        skyCombatLog.getServer().getAsyncScheduler().runNow(skyCombatLog, task -> {
+            Path temporary = directory.resolve(fileName + ".tmp");
+            try {
+                Files.write(temporary, batch);
+                Files.move(temporary, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to write a replication batch to " + directory + ".</red>"));
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        if(pollTask != null) {
+            pollTask.cancel();
+            pollTask = null;
+        }
+
+        receiver = null;
+    }
+
+    /**
+     * Reads every batch written by other servers that was not read yet, and deletes this server's expired batches.
+     */
+    private void poll() {
+        Consumer<byte[]> target = receiver;
+        if(target == null) return;
+
+        long expiredBefore = System.currentTimeMillis() - BATCH_TTL_MILLIS;
+        Set<String> presentFiles = new HashSet<>();
+
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for(Path file : files) {
+                String fileName = file.getFileName().toString();
+
+                try {
+                    if(fileName.startsWith(prefix)) {
+                        if(Files.getLastModifiedTime(file).toMillis() < expiredBefore) Files.deleteIfExists(file);
+                        continue;
+                    }
+
+                    presentFiles.add(fileName);
+                    if(seenFiles.add(fileName)) {
+                        target.accept(Files.readAllBytes(file));
+                    }
+                } catch (NoSuchFileException ignored) {
+                    // Deleted by its writer after the directory was listed.
+                }
+            }
+        } catch (IOException e) {
+            skyCombatLog.getComponentLogger().error(FormatUtil.format("<red>Failed to read replication batches from " + directory + ".</red>"));
+        }
+
+        // Forget files their writer has deleted so the set does not grow forever.
+        seenFiles.retainAll(presentFiles);
+    }
+}
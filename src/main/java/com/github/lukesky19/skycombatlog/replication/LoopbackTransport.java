@@ -0,0 +1,54 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A transport that delivers batches to every other started loopback transport in the same JVM.
+ * Lets several replicators talk to each other without a proxy, e.g. to simulate a network in one process.
+ */
+public class LoopbackTransport implements ReplicationTransport {
+    private static final List<LoopbackTransport> BUS = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<byte[]> receiver;
+
+    @Override
+    public void start(@NotNull Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        BUS.add(this);
+    }
+
+    @Override
+    public void send(byte[] batch) {
+        for(LoopbackTransport transport : BUS) {
+            Consumer<byte[]> target = transport.receiver;
+            if(transport != this && target != null) target.accept(batch);
+        }
+    }
+
+    @Override
+    public void stop() {
+        BUS.remove(this);
+        receiver = null;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * A transport that sends batches as plugin messages, which the proxy forwards to every other server.
+ * Uses the BungeeCord channel's Forward sub-channel, which Velocity also supports.
+ * Plugin messages travel over a player's connection, so batches are dropped while no player is online.
+ */
+public class PluginMessageTransport implements ReplicationTransport, PluginMessageListener {
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUB_CHANNEL = "SkyCombatLog";
+    // The Forward payload length is written as an unsigned short.
+    private static final int MAX_PAYLOAD_BYTES = 32_766;
+
+    private final SkyCombatLog skyCombatLog;
+    private volatile Consumer<byte[]> receiver;
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     */
+    public PluginMessageTransport(SkyCombatLog skyCombatLog) {
+        this.skyCombatLog = skyCombatLog;
+    }
+
+    @Override
+    public void start(@NotNull Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+
+        skyCombatLog.getServer().getMessenger().registerOutgoingPluginChannel(skyCombatLog, CHANNEL);
+        skyCombatLog.getServer().getMessenger().registerIncomingPluginChannel(skyCombatLog, CHANNEL, this);
+    }
+
+    @Override
+    public void send(byte[] batch) {
+        if(batch.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("A replication batch of " + batch.length + " bytes does not fit in a plugin message.");
+        }
+
+        Iterator<? extends Player> players = skyCombatLog.getServer().getOnlinePlayers().iterator();
+        if(!players.hasNext()) return;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.length + 32);
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUB_CHANNEL);
+            out.writeShort(batch.length);
+            out.write(batch);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        players.next().sendPluginMessage(skyCombatLog, CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public void stop() {
+        skyCombatLog.getServer().getMessenger().unregisterOutgoingPluginChannel(skyCombatLog, CHANNEL);
+        skyCombatLog.getServer().getMessenger().unregisterIncomingPluginChannel(skyCombatLog, CHANNEL, this);
+        receiver = null;
+    }
+
+    /**
+     * Receives forwarded batches from other servers.
+     * @param channel The channel the message was sent on.
+     * @param player The player whose connection the message arrived over.
+     * @param message The message.
+     */
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, byte[] message) {
+        Consumer<byte[]> target = receiver;
+        if(target == null || !channel.equals(CHANNEL)) return;
+
+        try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if(!in.readUTF().equals(SUB_CHANNEL)) return;
+
+            byte[] batch = new byte[in.readUnsignedShort()];
+            in.readFully(batch);
+            target.accept(batch);
+        } catch (IOException ignored) {
+            // Not a forwarded batch from this plugin.
+        }
+    }
+}
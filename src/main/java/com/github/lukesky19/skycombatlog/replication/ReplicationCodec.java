@@ -0,0 +1,183 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+import com.github.lukesky19.skycombatlog.journal.JournalRecord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes batches of combat state updates into a compact binary form.
+ * A batch starts with its origin server and a base timestamp. Each update is a type byte, the player's UUID and, for
+ * updates that carry one, its expiry encoded as a zig-zag varint delta from the previous expiry in the batch.
+ * Expiries in a batch are close together, so most take two or three bytes instead of eight.
+ */
+public final class ReplicationCodec {
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 1 + 8 + 8 + 4;
+    // Type byte, UUID and the longest possible varint.
+    private static final int MAX_UPDATE_BYTES = 1 + 16 + 10;
+
+    /**
+     * The most updates put in one batch, so a batch always fits in a plugin message.
+     */
+    public static final int MAX_UPDATES_PER_BATCH = 1000;
+
+    private ReplicationCodec() {}
+
+    /**
+     * A decoded batch.
+     * @param origin The id of the server the batch came from.
+     * @param updates The updates in the batch.
+     */
+    public record Batch(long origin, @NotNull List<JournalRecord> updates) {}
+
+    /**
+     * Encodes a batch.
+     * @param origin The id of the server sending the batch.
+     * @param updates The updates, at most {@link #MAX_UPDATES_PER_BATCH}.
+     * @return The encoded batch.
+     */
+    public static byte[] encode(long origin, @NotNull List<JournalRecord> updates) {
+        if(updates.size() > MAX_UPDATES_PER_BATCH) throw new IllegalArgumentException("Too many updates for one batch.");
+
+        long base = System.currentTimeMillis();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + updates.size() * MAX_UPDATE_BYTES);
+        buffer.put(VERSION);
+        buffer.putLong(origin);
+        buffer.putLong(base);
+        buffer.putInt(updates.size());
+
+        long previous = base;
+        for(JournalRecord update : updates) {
+            buffer.put(update.type().getId());
+            buffer.putLong(update.uuid().getMostSignificantBits());
+            buffer.putLong(update.uuid().getLeastSignificantBits());
+
+            if(hasExpiry(update.type())) {
+                writeVarLong(buffer, zigZag(update.expiry() - previous));
+                previous = update.expiry();
+            }
+        }
+
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Decodes a batch.
+     * @param bytes The encoded batch.
+     * @return The Batch or null if the bytes are not a valid batch.
+     */
+    @Nullable
+    public static Batch decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        try {
+            if(buffer.get() != VERSION) return null;
+
+            long origin = buffer.getLong();
+            long previous = buffer.getLong();
+            int count = buffer.getInt();
+            if(count < 0 || count > MAX_UPDATES_PER_BATCH) return null;
+
+            List<JournalRecord> updates = new ArrayList<>(count);
+            for(int i = 0; i < count; i++) {
+                JournalRecord.Type type = JournalRecord.Type.fromId(buffer.get());
+                if(type == null) return null;
+
+                UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+                long expiry = 0L;
+                if(hasExpiry(type)) {
+                    expiry = previous + unZigZag(readVarLong(buffer));
+                    previous = expiry;
+                }
+
+                updates.add(new JournalRecord(type, uuid, expiry));
+            }
+
+            return new Batch(origin, updates);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if an update type carries an expiry.
+     * @param type The update type.
+     * @return true if it carries an expiry, false if not.
+     */
+    private static boolean hasExpiry(@NotNull JournalRecord.Type type) {
+        return type == JournalRecord.Type.TAG || type == JournalRecord.Type.REFRESH || type == JournalRecord.Type.PENDING_KILL;
+    }
+
+    /**
+     * Writes an unsigned varint, seven bits per byte.
+     * @param buffer The ByteBuffer to write to.
+     * @param value The value.
+     */
+    private static void writeVarLong(@NotNull ByteBuffer buffer, long value) {
+        while((value & ~0x7FL) != 0L) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     * @param buffer The ByteBuffer to read from.
+     * @return The value.
+     */
+    private static long readVarLong(@NotNull ByteBuffer buffer) {
+        long value = 0L;
+        for(int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0) return value;
+        }
+
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    /**
+     * Maps a signed value to an unsigned one so small negative deltas stay small.
+     * @param value The signed value.
+     * @return The zig-zag encoded value.
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigZag(long)}.
+     * @param value The zig-zag encoded value.
+     * @return The signed value.
+     */
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
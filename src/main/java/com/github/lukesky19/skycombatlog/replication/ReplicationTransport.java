@@ -0,0 +1,45 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded batches of combat state updates between the backend servers of a network.
+ * Implementations only move bytes, batching and encoding is done by {@link CombatReplicator}.
+ */
+public interface ReplicationTransport {
+    /**
+     * Starts the transport.
+     * @param receiver The consumer to pass batches received from other servers to. May be called from any thread.
+     */
+    void start(@NotNull Consumer<byte[]> receiver);
+
+    /**
+     * Sends a batch to the other servers. Must not block on I/O.
+     * @param batch The encoded batch.
+     */
+    void send(byte[] batch);
+
+    /**
+     * Stops the transport and releases its resources.
+     */
+    void stop();
+}
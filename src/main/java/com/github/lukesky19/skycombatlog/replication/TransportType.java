@@ -0,0 +1,37 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.replication;
+
+/**
+ * The transports combat state can be replicated through.
+ */
+public enum TransportType {
+    /**
+     * Plugin messages forwarded to every other server by the proxy through the BungeeCord channel.
+     * Works on BungeeCord and Velocity. A message can only be sent while a player is online on the sending server.
+     */
+    PLUGIN_MESSAGE,
+    /**
+     * Batch files written to a directory shared by every server. Meant for servers on the same machine and for testing.
+     */
+    FILE,
+    /**
+     * An in-memory bus between every replicator in the same JVM. Only useful for tests and simulations.
+     */
+    LOOPBACK
+}
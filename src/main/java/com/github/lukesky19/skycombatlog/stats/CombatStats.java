@@ -0,0 +1,234 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.stats;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Low-overhead runtime statistics for the plugin's hot paths.
+ * Counters and histograms are striped so recording from many threads neither contends nor allocates.
+ */
+public class CombatStats {
+    /**
+     * The instrumented code paths.
+     */
+    public enum Timer {
+        /**
+         * PlayerDamageListener#onPlayerDamage
+         */
+        DAMAGE_LISTENER,
+        /**
+         * PlayerTeleportListener#onTeleport
+         */
+        TELEPORT_LISTENER,
+        /**
+         * PlayerQuitListener#onPlayerQuit
+         */
+        QUIT_LISTENER,
+        /**
+         * PlayerDeathListener#onPlayerDeath
+         */
+        DEATH_LISTENER,
+        /**
+         * PlayerJoinListener#onPlayerJoin
+         */
+        JOIN_LISTENER,
+        /**
+         * One run of the combat timer.
+         */
+        COMBAT_TIMER
+    }
+
+    /**
+     * The counted events.
+     */
+    public enum Counter {
+        /**
+         * A player was put into combat.
+         */
+        TAGS,
+        /**
+         * A player already in combat had their timer refreshed.
+         */
+        REFRESHES,
+        /**
+         * A player's combat timer ran out.
+         */
+        EXPIRIES,
+        /**
+         * A player was killed for logging out in combat.
+         */
+        COMBAT_LOGS,
+        /**
+         * A teleport was cancelled because the player was in combat.
+         */
+        BLOCKED_TELEPORTS,
+        /**
+         * A combat action bar was sent to a player.
+         */
+        ACTION_BARS_SENT,
+        /**
+         * A combat action bar was not sent because the player already had the same one on screen.
+         */
+        ACTION_BARS_SKIPPED,
+        /**
+         * A player-vs-player hit did not tag because one of the players was in a safe zone.
+         */
+        SAFE_ZONE_HITS,
+        /**
+         * A combat state update was sent to the other servers of the network.
+         */
+        REPLICATED_UPDATES_SENT,
+        /**
+         * A combat state update was received from another server of the network.
+         */
+        REPLICATED_UPDATES_RECEIVED,
+        /**
+         * A player in combat left and was handed off to another server of the network instead of being killed.
+         */
+        HANDOFFS,
+        /**
+         * A combat log punishment was put off until the player rejoins, or pardoned, because of the tick budget, a
+         * mass disconnect or a shutdown.
+         */
+        DEFERRED_PUNISHMENTS,
+        /**
+         * A queued combat log punishment action was carried out.
+         */
+        PUNISHMENT_ACTIONS,
+        /**
+         * A combat refresh was not written to the combat journal because too many players were waiting to be written.
+         */
+        JOURNAL_REFRESHES_DROPPED
+    }
+
+    private final LatencyHistogram[] timers = new LatencyHistogram[Timer.values().length];
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final Map<String, Supplier<Number>> gauges = new LinkedHashMap<>();
+
+    /**
+     * Constructor
+     */
+    public CombatStats() {
+        for(int i = 0; i < timers.length; i++) {
+            timers[i] = new LatencyHistogram();
+        }
+
+        for(int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records how long a code path took.
+     * @param timer The Timer
+     * @param startNanos The {@link System#nanoTime()} taken when the code path started.
+     */
+    public void record(@NotNull Timer timer, long startNanos) {
+        timers[timer.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Increments a counter.
+     * @param counter The Counter
+     */
+    public void increment(@NotNull Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * Adds to a counter.
+     * @param counter The Counter
+     * @param amount The amount to add.
+     */
+    public void add(@NotNull Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    /**
+     * Gets a histogram.
+     * @param timer The Timer
+     * @return The LatencyHistogram
+     */
+    @NotNull
+    public LatencyHistogram getHistogram(@NotNull Timer timer) {
+        return timers[timer.ordinal()];
+    }
+
+    /**
+     * Gets the value of a counter.
+     * @param counter The Counter
+     * @return The value.
+     */
+    public long getCount(@NotNull Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Registers a value that is read when the report is built, such as a store size.
+     * Gauges are registered once during startup.
+     * @param name The name shown in the report.
+     * @param gauge The supplier of the value.
+     */
+    public void registerGauge(@NotNull String name, @NotNull Supplier<Number> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Clears every histogram and counter.
+     */
+    public void reset() {
+        for(LatencyHistogram histogram : timers) {
+            histogram.reset();
+        }
+
+        for(LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Builds a plain text report of every histogram, counter and gauge.
+     * @return The report, one entry per line.
+     */
+    @NotNull
+    public String buildReport() {
+        StringBuilder report = new StringBuilder();
+
+        report.append("Latency:\n");
+        for(Timer timer : Timer.values()) {
+            report.append("  ").append(timer.name().toLowerCase(Locale.ROOT)).append(": ").append(getHistogram(timer).summarize()).append('\n');
+        }
+
+        report.append("Counters:\n");
+        for(Counter counter : Counter.values()) {
+            report.append("  ").append(counter.name().toLowerCase(Locale.ROOT)).append(": ").append(getCount(counter)).append('\n');
+        }
+
+        report.append("Stores:\n");
+        gauges.forEach((name, gauge) -> report.append("  ").append(name).append(": ").append(gauge.get()).append('\n'));
+
+        return report.toString();
+    }
+}
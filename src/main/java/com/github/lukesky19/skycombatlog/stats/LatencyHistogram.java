@@ -0,0 +1,131 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.stats;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power-of-two nanosecond buckets backed by striped counters.
+ * Recording never allocates once every bucket has been touched.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Constructor
+     */
+    public LatencyHistogram() {
+        for(int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if(nanos < 0) nanos = 0;
+
+        buckets[BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1L)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     * @return The count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     * @return The mean in nanoseconds.
+     */
+    public long getMeanNanos() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / samples;
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     * @return The max in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Gets an upper bound of the given percentile, accurate to the power of two bucket it falls in.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the percentile in nanoseconds.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long samples = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets[i].sum();
+            samples += snapshot[i];
+        }
+
+        if(samples == 0) return 0;
+
+        long target = (long) Math.ceil(samples * (percentile / 100.0));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if(seen >= target) return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+
+        return getMaxNanos();
+    }
+
+    /**
+     * Clears every recorded duration.
+     */
+    public void reset() {
+        for(LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * Formats the histogram as a single line of count, mean, percentiles and max.
+     * @return The formatted summary.
+     */
+    @NotNull
+    public String summarize() {
+        return String.format("count=%d mean=%dns p50<=%dns p99<=%dns max=%dns",
+                getCount(), getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99), getMaxNanos());
+    }
+}
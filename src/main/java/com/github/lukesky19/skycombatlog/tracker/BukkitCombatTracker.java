@@ -0,0 +1,256 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.tracker.store.CombatStore;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Tracks combat timers in a {@link CombatStore} driven by a single main thread BukkitScheduler task.
+ * Per-second updates are either done for every player on one tick or spread over the ticks of a second, see
+ * {@link TimerScheduling}.
+ */
+public class BukkitCombatTracker implements CombatTracker {
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final SkyCombatLog skyCombatLog;
+    private final TimerHandler handler;
+    private final CombatStore combatStore;
+    private final CombatStats combatStats;
+    private final TimerScheduling timerScheduling;
+    private final LinkedHashMap<UUID, Player> dirtyPlayers = new LinkedHashMap<>();
+    private final HashSet<UUID>[] buckets;
+    private final HashMap<UUID, Byte> playerBuckets = new HashMap<>();
+    // Bound once so the per-tick calls below do not create a new consumer every tick.
+    private final Consumer<UUID> expiredConsumer = this::handleCombatExpired;
+    private final Consumer<UUID> bucketConsumer = this::handleBucketTick;
+    private final BiConsumer<UUID, Player> dirtyConsumer = this::handleDirtyPlayer;
+    private final ObjLongConsumer<UUID> tickConsumer = this::handleCombatTick;
+    private BukkitTask timerTask;
+    private long currentTick;
+    private int currentBucket = -1;
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     * @param handler The TimerHandler to notify of timer updates.
+     * @param combatStore The CombatStore to keep deadlines in.
+     * @param combatStats The CombatStats to record the timer's latency to.
+     * @param timerScheduling How per-second updates are spread over the ticks of a second.
+     */
+    @SuppressWarnings("unchecked")
+    public BukkitCombatTracker(SkyCombatLog skyCombatLog, TimerHandler handler, CombatStore combatStore, CombatStats combatStats, TimerScheduling timerScheduling) {
+        this.skyCombatLog = skyCombatLog;
+        this.handler = handler;
+        this.combatStore = combatStore;
+        this.combatStats = combatStats;
+        this.timerScheduling = timerScheduling;
+
+        this.buckets = new HashSet[TICKS_PER_SECOND];
+        for(int i = 0; i < TICKS_PER_SECOND; i++) {
+            buckets[i] = new HashSet<>();
+        }
+    }
+
+    /**
+     * Starts the timer task that runs {@link #tick()} every tick.
+     */
+    @Override
+    public void start() {
+        if(timerTask != null) return;
+
+        timerTask = skyCombatLog.getServer().getScheduler().runTaskTimer(skyCombatLog, this::tick, 0L, 1L);
+    }
+
+    /**
+     * Advances the tracker by one tick. Called by the timer task every tick.
+     * Expires combat deadlines, updates every player once a second, and updates players tagged during the ticks between.
+     */
+    public void tick() {
+        long startNanos = System.nanoTime();
+        currentTick++;
+
+        combatStore.expire(currentTick, expiredConsumer);
+
+        if(timerScheduling == TimerScheduling.SPREAD) {
+            currentBucket = (int) (currentTick % TICKS_PER_SECOND);
+            buckets[currentBucket].forEach(bucketConsumer);
+
+            if(!dirtyPlayers.isEmpty()) {
+                dirtyPlayers.forEach(dirtyConsumer);
+                dirtyPlayers.clear();
+            }
+        } else if(currentTick % TICKS_PER_SECOND == 0) {
+            combatStore.forEach(tickConsumer);
+            dirtyPlayers.clear();
+        } else if(!dirtyPlayers.isEmpty()) {
+            dirtyPlayers.forEach(dirtyConsumer);
+            dirtyPlayers.clear();
+        }
+
+        combatStats.record(CombatStats.Timer.COMBAT_TIMER, startNanos);
+    }
+
+    @Override
+    public void stop() {
+        if(timerTask != null && !timerTask.isCancelled()) {
+            timerTask.cancel();
+        }
+
+        timerTask = null;
+    }
+
+    @Override
+    public void tag(@NotNull Player player, long durationTicks) {
+        UUID uuid = player.getUniqueId();
+
+        combatStore.put(uuid, currentTick + durationTicks);
+        dirtyPlayers.put(uuid, player);
+
+        // Refreshes keep their bucket so the player keeps getting exactly one update per second.
+        if(timerScheduling == TimerScheduling.SPREAD && !playerBuckets.containsKey(uuid)) {
+            int bucket = (int) (currentTick % TICKS_PER_SECOND);
+            playerBuckets.put(uuid, (byte) bucket);
+            buckets[bucket].add(uuid);
+        }
+    }
+
+    @Override
+    public boolean untag(@NotNull UUID uuid) {
+        dirtyPlayers.remove(uuid);
+        removeFromBucket(uuid);
+        return combatStore.remove(uuid);
+    }
+
+    @Override
+    public boolean isTagged(@NotNull UUID uuid) {
+        return combatStore.contains(uuid);
+    }
+
+    @Override
+    public long getRemainingTicks(@NotNull UUID uuid) {
+        long deadline = combatStore.getDeadline(uuid);
+        if(deadline == CombatStore.NO_DEADLINE) return NOT_TAGGED;
+
+        return Math.max(0L, deadline - currentTick);
+    }
+
+    @Override
+    public int sweepOrphans() {
+        List<UUID> orphans = new ArrayList<>();
+        combatStore.forEach((uuid, deadline) -> {
+            if(skyCombatLog.getServer().getPlayer(uuid) == null) orphans.add(uuid);
+        });
+
+        int removed = 0;
+        for(UUID uuid : orphans) {
+            if(!combatStore.remove(uuid)) continue;
+
+            dirtyPlayers.remove(uuid);
+            handleCombatExpired(uuid);
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return combatStore.size();
+    }
+
+    @Override
+    public long estimateFootprintBytes() {
+        // LinkedHashMap entry + table slot per dirty player, HashMap and HashSet entries + table slots per bucketed player.
+        return combatStore.estimateFootprintBytes() + dirtyPlayers.size() * 44L + playerBuckets.size() * 80L;
+    }
+
+    /**
+     * Passes a player whose combat timer ran out to the handler.
+     * @param uuid The UUID of the player.
+     */
+    private void handleCombatExpired(@NotNull UUID uuid) {
+        removeFromBucket(uuid);
+        handler.onCombatExpired(uuid, skyCombatLog.getServer().getPlayer(uuid));
+    }
+
+    /**
+     * Passes a player still in combat to the handler if they are online.
+     * @param uuid The UUID of the player.
+     * @param deadline The tick the player's combat ends at.
+     */
+    private void handleCombatTick(@NotNull UUID uuid, long deadline) {
+        Player player = skyCombatLog.getServer().getPlayer(uuid);
+
+        if(player != null && player.isOnline() && player.isConnected()) {
+            handler.onCombatTick(player, deadline - currentTick);
+        }
+    }
+
+    /**
+     * Passes a player in the bucket updated this tick to the handler if they are online.
+     * @param uuid The UUID of the player.
+     */
+    private void handleBucketTick(@NotNull UUID uuid) {
+        long deadline = combatStore.getDeadline(uuid);
+        if(deadline == CombatStore.NO_DEADLINE) return;
+
+        handleCombatTick(uuid, deadline);
+    }
+
+    /**
+     * Passes a player that was tagged this tick to the handler if they are still tagged and online.
+     * Players whose bucket was already updated this tick are skipped.
+     * @param uuid The UUID of the player.
+     * @param player The Player
+     */
+    private void handleDirtyPlayer(@NotNull UUID uuid, @NotNull Player player) {
+        if(timerScheduling == TimerScheduling.SPREAD) {
+            Byte bucket = playerBuckets.get(uuid);
+            if(bucket != null && bucket == currentBucket) return;
+        }
+
+        long deadline = combatStore.getDeadline(uuid);
+
+        if(deadline != CombatStore.NO_DEADLINE && player.isOnline() && player.isConnected()) {
+            handler.onCombatTick(player, deadline - currentTick);
+        }
+    }
+
+    /**
+     * Removes a player from their update bucket.
+     * @param uuid The UUID of the player.
+     */
+    private void removeFromBucket(@NotNull UUID uuid) {
+        Byte bucket = playerBuckets.remove(uuid);
+        if(bucket != null) buckets[bucket].remove(uuid);
+    }
+}
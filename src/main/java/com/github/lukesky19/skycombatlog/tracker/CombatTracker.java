@@ -0,0 +1,112 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Stores the combat deadline of tagged players and drives their timers.
+ */
+public interface CombatTracker {
+    /**
+     * Returned by {@link #getRemainingTicks(UUID)} when the player is not in combat.
+     */
+    long NOT_TAGGED = -1L;
+
+    /**
+     * Starts the timer(s) that expire tags and update players.
+     */
+    void start();
+
+    /**
+     * Stops all timers. Tagged players are kept.
+     */
+    void stop();
+
+    /**
+     * Tags a player for the given duration, replacing any existing deadline.
+     * This only refreshes the deadline and marks the player dirty. The handler is notified of dirty players at most
+     * once per tick, on the thread that owns the player.
+     * @param player The Player
+     * @param durationTicks The duration of the tag in ticks.
+     */
+    void tag(@NotNull Player player, long durationTicks);
+
+    /**
+     * Removes a player's tag.
+     * @param uuid The UUID of the player.
+     * @return true if the player was tagged, false if not.
+     */
+    boolean untag(@NotNull UUID uuid);
+
+    /**
+     * Checks if a player is tagged.
+     * @param uuid The UUID of the player.
+     * @return true if tagged, false if not.
+     */
+    boolean isTagged(@NotNull UUID uuid);
+
+    /**
+     * Gets the remaining ticks of a player's tag.
+     * @param uuid The UUID of the player.
+     * @return The remaining ticks or {@link #NOT_TAGGED} if not tagged.
+     */
+    long getRemainingTicks(@NotNull UUID uuid);
+
+    /**
+     * Removes the tag of every player that is no longer online.
+     * Each removed tag is passed to {@link TimerHandler#onCombatExpired(UUID, Player)} like a tag that ran out.
+     * @return The number of tags removed.
+     */
+    int sweepOrphans();
+
+    /**
+     * Gets the number of tagged players.
+     * @return The number of tagged players.
+     */
+    int size();
+
+    /**
+     * Estimates the heap used by the tracker's storage, assuming compressed object pointers.
+     * @return The estimated footprint in bytes.
+     */
+    long estimateFootprintBytes();
+
+    /**
+     * Receives timer updates from a {@link CombatTracker}.
+     */
+    interface TimerHandler {
+        /**
+         * Called when a player is tagged and once per second while they stay tagged.
+         * @param player The Player
+         * @param remainingTicks The remaining ticks of their tag.
+         */
+        void onCombatTick(@NotNull Player player, long remainingTicks);
+
+        /**
+         * Called when a player's tag runs out.
+         * @param uuid The UUID of the player.
+         * @param player The Player if online, otherwise null.
+         */
+        void onCombatExpired(@NotNull UUID uuid, @Nullable Player player);
+    }
+}
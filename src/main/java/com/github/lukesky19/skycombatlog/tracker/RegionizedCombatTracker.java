@@ -0,0 +1,259 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks combat timers in a thread-safe store and runs each player's timer through their entity scheduler,
+ * so tag updates and action bars run on the region thread that owns the player.
+ * Deadlines are kept in server ticks like the {@link BukkitCombatTracker}. A player's timer runs once per second and
+ * the last run is delayed to the tick their deadline falls on.
+ */
+public class RegionizedCombatTracker implements CombatTracker {
+    private static final long TIMER_PERIOD_TICKS = 20L;
+
+    private final SkyCombatLog skyCombatLog;
+    private final TimerHandler handler;
+    private final CombatStats combatStats;
+    private final ConcurrentHashMap<UUID, Long> deadlines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, ScheduledTask> timerTasks = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     * @param skyCombatLog The SkyCombatLog plugin
+     * @param handler The TimerHandler to notify of timer updates.
+     * @param combatStats The CombatStats to record timer latency to.
+     */
+    public RegionizedCombatTracker(SkyCombatLog skyCombatLog, TimerHandler handler, CombatStats combatStats) {
+        this.skyCombatLog = skyCombatLog;
+        this.handler = handler;
+        this.combatStats = combatStats;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+
+        // Tags restored or left behind while stopped need their timers back.
+        for(UUID uuid : deadlines.keySet()) {
+            Player player = skyCombatLog.getServer().getPlayer(uuid);
+            if(player != null) ensureTimerTask(player, uuid);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        timerTasks.values().forEach(ScheduledTask::cancel);
+        timerTasks.clear();
+    }
+
+    @Override
+    public void tag(@NotNull Player player, long durationTicks) {
+        UUID uuid = player.getUniqueId();
+        deadlines.put(uuid, now() + durationTicks);
+
+        ensureTimerTask(player, uuid);
+
+        // Only the first tag in a tick schedules an update, later hits just move the deadline.
+        if(dirtyPlayers.add(uuid)) {
+            player.getScheduler().run(skyCombatLog, task -> handleDirtyPlayer(player, uuid), () -> dirtyPlayers.remove(uuid));
+        }
+    }
+
+    @Override
+    public boolean untag(@NotNull UUID uuid) {
+        return deadlines.remove(uuid) != null;
+    }
+
+    @Override
+    public boolean isTagged(@NotNull UUID uuid) {
+        return deadlines.containsKey(uuid);
+    }
+
+    @Override
+    public long getRemainingTicks(@NotNull UUID uuid) {
+        Long deadline = deadlines.get(uuid);
+        if(deadline == null) return NOT_TAGGED;
+
+        return Math.max(0L, deadline - now());
+    }
+
+    @Override
+    public int sweepOrphans() {
+        int removed = 0;
+        for(UUID uuid : deadlines.keySet()) {
+            if(skyCombatLog.getServer().getPlayer(uuid) != null || deadlines.remove(uuid) == null) continue;
+
+            ScheduledTask task = timerTasks.remove(uuid);
+            if(task != null) task.cancel();
+            dirtyPlayers.remove(uuid);
+
+            handler.onCombatExpired(uuid, null);
+            removed++;
+        }
+
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return deadlines.size();
+    }
+
+    @Override
+    public long estimateFootprintBytes() {
+        // ConcurrentHashMap node + boxed Long + table slot per deadline, node + table slot + scheduled task per timer.
+        return deadlines.size() * 52L + timerTasks.size() * 100L + dirtyPlayers.size() * 36L;
+    }
+
+    /**
+     * Schedules the player's timer on their entity scheduler if one is not already running.
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     */
+    private void ensureTimerTask(@NotNull Player player, @NotNull UUID uuid) {
+        if(!running) return;
+
+        timerTasks.computeIfAbsent(uuid, key -> scheduleTimer(player, uuid, Math.min(TIMER_PERIOD_TICKS, getRemainingTicks(uuid))));
+    }
+
+    /**
+     * Schedules the next run of a player's timer on their entity scheduler.
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     * @param delayTicks The ticks until the next run.
+     * @return The ScheduledTask or null if the player's entity was already removed.
+     */
+    @Nullable
+    private ScheduledTask scheduleTimer(@NotNull Player player, @NotNull UUID uuid, long delayTicks) {
+        return player.getScheduler().runDelayed(skyCombatLog,
+                task -> handleTimer(task, player, uuid),
+                () -> handleRetired(uuid),
+                Math.max(1L, delayTicks));
+    }
+
+    /**
+     * Runs once per second, and on the tick their deadline falls on, on the player's owning region thread while they are tagged.
+     * @param task The player's ScheduledTask
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     */
+    private void handleTimer(@NotNull ScheduledTask task, @NotNull Player player, @NotNull UUID uuid) {
+        long startNanos = System.nanoTime();
+        try {
+            updateTimer(task, player, uuid);
+        } finally {
+            combatStats.record(CombatStats.Timer.COMBAT_TIMER, startNanos);
+        }
+    }
+
+    /**
+     * Expires or updates a player's timer, then schedules its next run.
+     * @param task The player's ScheduledTask
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     */
+    private void updateTimer(@NotNull ScheduledTask task, @NotNull Player player, @NotNull UUID uuid) {
+        Long deadline = deadlines.get(uuid);
+        if(deadline == null) {
+            stopTimerTask(task, player, uuid);
+            return;
+        }
+
+        long remainingTicks = deadline - now();
+        if(remainingTicks <= 0) {
+            // Only the thread that removes this exact deadline expires it, a concurrent re-tag wins.
+            if(deadlines.remove(uuid, deadline)) {
+                handler.onCombatExpired(uuid, player);
+            }
+
+            stopTimerTask(task, player, uuid);
+            return;
+        }
+
+        handler.onCombatTick(player, remainingTicks);
+
+        // The sweeper or stop() may have dropped this timer while it ran, in which case it must not come back.
+        ScheduledTask next = scheduleTimer(player, uuid, Math.min(TIMER_PERIOD_TICKS, remainingTicks));
+        if(next == null) {
+            timerTasks.remove(uuid, task);
+        } else if(!timerTasks.replace(uuid, task, next)) {
+            next.cancel();
+        }
+    }
+
+    /**
+     * Runs on the tick after a player was tagged, on their owning region thread.
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     */
+    private void handleDirtyPlayer(@NotNull Player player, @NotNull UUID uuid) {
+        dirtyPlayers.remove(uuid);
+
+        long remainingTicks = getRemainingTicks(uuid);
+        if(remainingTicks != NOT_TAGGED) {
+            handler.onCombatTick(player, remainingTicks);
+        }
+    }
+
+    /**
+     * Cancels a player's timer task without scheduling its next run.
+     * @param task The player's ScheduledTask
+     * @param player The Player
+     * @param uuid The UUID of the player.
+     */
+    private void stopTimerTask(@NotNull ScheduledTask task, @NotNull Player player, @NotNull UUID uuid) {
+        task.cancel();
+        timerTasks.remove(uuid, task);
+
+        // A tag may have landed while the task was being removed, make sure it still gets a timer.
+        if(deadlines.containsKey(uuid)) {
+            ensureTimerTask(player, uuid);
+        }
+    }
+
+    /**
+     * Drops the timer of a player whose entity was removed, for example when they log out.
+     * @param uuid The UUID of the player.
+     */
+    private void handleRetired(@NotNull UUID uuid) {
+        timerTasks.remove(uuid);
+    }
+
+    /**
+     * Gets the current server tick.
+     * @return The current server tick.
+     */
+    private long now() {
+        return skyCombatLog.getServer().getCurrentTick();
+    }
+}
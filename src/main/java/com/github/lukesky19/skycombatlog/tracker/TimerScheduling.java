@@ -0,0 +1,33 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker;
+
+/**
+ * How the main thread tracker spreads per-second combat updates over the ticks of a second.
+ */
+public enum TimerScheduling {
+    /**
+     * Every tagged player is updated on the same tick once a second.
+     */
+    ALIGNED,
+    /**
+     * Each tagged player is assigned one of 20 tick buckets based on the tick they were tagged on, and one bucket is
+     * updated per tick. Players are still updated once a second, but the cost is spread evenly over the second.
+     */
+    SPREAD
+}
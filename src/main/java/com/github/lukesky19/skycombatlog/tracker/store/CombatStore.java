@@ -0,0 +1,89 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Stores the absolute expiry tick of each tagged player for the main thread tracker.
+ * Implementations are not thread-safe.
+ */
+public interface CombatStore {
+    /**
+     * Returned by {@link #getDeadline(UUID)} when the player is not stored.
+     */
+    long NO_DEADLINE = Long.MIN_VALUE;
+
+    /**
+     * Stores or replaces a player's deadline.
+     * @param uuid The UUID of the player.
+     * @param deadline The absolute tick the player's combat ends at.
+     */
+    void put(@NotNull UUID uuid, long deadline);
+
+    /**
+     * Removes a player.
+     * @param uuid The UUID of the player.
+     * @return true if the player was stored, false if not.
+     */
+    boolean remove(@NotNull UUID uuid);
+
+    /**
+     * Checks if a player is stored.
+     * @param uuid The UUID of the player.
+     * @return true if stored, false if not.
+     */
+    boolean contains(@NotNull UUID uuid);
+
+    /**
+     * Gets a player's deadline.
+     * @param uuid The UUID of the player.
+     * @return The deadline or {@link #NO_DEADLINE} if the player is not stored.
+     */
+    long getDeadline(@NotNull UUID uuid);
+
+    /**
+     * Gets the number of stored players.
+     * @return The number of stored players.
+     */
+    int size();
+
+    /**
+     * Estimates the heap used by the store, assuming compressed object pointers.
+     * The UUID objects themselves belong to the players and are not counted.
+     * @return The estimated footprint in bytes.
+     */
+    long estimateFootprintBytes();
+
+    /**
+     * Removes every player whose deadline is at or before the given tick and passes them to the consumer.
+     * @param currentTick The current tick.
+     * @param expired The consumer to pass expired players to.
+     */
+    void expire(long currentTick, @NotNull Consumer<UUID> expired);
+
+    /**
+     * Iterates every stored player and their deadline.
+     * @param consumer The consumer to pass each player and deadline to.
+     */
+    void forEach(@NotNull ObjLongConsumer<UUID> consumer);
+}
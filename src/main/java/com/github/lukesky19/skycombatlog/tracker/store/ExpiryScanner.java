@@ -0,0 +1,56 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds the slots of a packed store whose expiry tick has passed.
+ */
+interface ExpiryScanner {
+    /**
+     * Writes the index of every expiry at or before the current tick into the output array.
+     * @param expiries The expiry ticks. Empty slots must hold {@link Long#MAX_VALUE}.
+     * @param length The number of slots to scan.
+     * @param currentTick The current tick.
+     * @param out The array to write indexes into. Must be at least length long.
+     * @return The number of indexes written.
+     */
+    int scan(long[] expiries, int length, long currentTick, int[] out);
+
+    /**
+     * Gets the fastest scanner available in this JVM.
+     * The Vector API scanner is only used when the jdk.incubator.vector module was enabled at startup.
+     * It is compiled separately from the rest of the plugin, so it is looked up by name.
+     * @return An ExpiryScanner
+     */
+    @NotNull
+    static ExpiryScanner create() {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (ExpiryScanner) Class.forName("com.github.lukesky19.skycombatlog.tracker.store.VectorExpiryScanner")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError ignored) {
+                // Fall back below.
+            }
+        }
+
+        return new ScalarExpiryScanner();
+    }
+}
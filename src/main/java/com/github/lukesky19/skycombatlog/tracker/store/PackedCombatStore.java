@@ -0,0 +1,255 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A {@link CombatStore} that keeps UUID bits and expiry ticks in parallel primitive arrays indexed by linear probing.
+ * Tagging, refreshing and expiring do not allocate, the arrays only grow when the load factor is exceeded.
+ * The UUID references are kept alongside the bits only so callbacks can be passed the key without allocating one.
+ */
+public class PackedCombatStore implements CombatStore {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long EMPTY = Long.MAX_VALUE;
+
+    private final ExpiryScanner scanner = ExpiryScanner.create();
+    private long[] mostSigBits;
+    private long[] leastSigBits;
+    private long[] expiries;
+    private UUID[] keys;
+    private int[] expiredIndexes;
+    private UUID[] expiredKeys;
+    private int mask;
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public PackedCombatStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void put(@NotNull UUID uuid, long deadline) {
+        int index = indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if(index >= 0) {
+            expiries[index] = deadline;
+            return;
+        }
+
+        if((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        insert(uuid, deadline);
+        size++;
+    }
+
+    @Override
+    public boolean remove(@NotNull UUID uuid) {
+        int index = indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if(index < 0) return false;
+
+        delete(index);
+        return true;
+    }
+
+    @Override
+    public boolean contains(@NotNull UUID uuid) {
+        return indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+    }
+
+    @Override
+    public long getDeadline(@NotNull UUID uuid) {
+        int index = indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if(index < 0) return NO_DEADLINE;
+
+        return expiries[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of slots in the backing arrays.
+     * @return The capacity.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public long estimateFootprintBytes() {
+        // Three long arrays, two reference arrays and the int scratch array.
+        return (long) keys.length * (8L + 8L + 8L + 4L + 4L + 4L);
+    }
+
+    @Override
+    public void expire(long currentTick, @NotNull Consumer<UUID> expired) {
+        if(size == 0) return;
+
+        int count = scanner.scan(expiries, expiries.length, currentTick, expiredIndexes);
+        if(count == 0) return;
+
+        // A callback may tag a player, which can grow the table and replace the scratch arrays, so keep using these.
+        int[] indexes = expiredIndexes;
+        UUID[] pending = expiredKeys;
+
+        // Deleting shifts entries, so resolve every key before removing any of them.
+        for(int i = 0; i < count; i++) {
+            pending[i] = keys[indexes[i]];
+        }
+
+        for(int i = 0; i < count; i++) {
+            UUID uuid = pending[i];
+            pending[i] = null;
+
+            // An earlier callback may have removed or re-tagged this player.
+            int index = indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if(index < 0 || expiries[index] > currentTick) continue;
+
+            delete(index);
+            expired.accept(uuid);
+        }
+    }
+
+    @Override
+    public void forEach(@NotNull ObjLongConsumer<UUID> consumer) {
+        for(int i = 0; i < keys.length; i++) {
+            UUID uuid = keys[i];
+            if(uuid != null) consumer.accept(uuid, expiries[i]);
+        }
+    }
+
+    /**
+     * Finds the slot holding a key.
+     * @param msb The most significant bits of the UUID.
+     * @param lsb The least significant bits of the UUID.
+     * @return The slot index or -1 if not stored.
+     */
+    private int indexOf(long msb, long lsb) {
+        int index = slotOf(msb, lsb);
+        while(keys[index] != null) {
+            if(mostSigBits[index] == msb && leastSigBits[index] == lsb) return index;
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Places a key into the first free slot of its probe sequence. The key must not already be stored.
+     * @param uuid The UUID of the player.
+     * @param deadline The player's deadline.
+     */
+    private void insert(@NotNull UUID uuid, long deadline) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+
+        int index = slotOf(msb, lsb);
+        while(keys[index] != null) {
+            index = (index + 1) & mask;
+        }
+
+        mostSigBits[index] = msb;
+        leastSigBits[index] = lsb;
+        expiries[index] = deadline;
+        keys[index] = uuid;
+    }
+
+    /**
+     * Removes the entry in a slot, shifting later entries of the same probe run back so no tombstones are needed.
+     * @param index The slot index.
+     */
+    private void delete(int index) {
+        int hole = index;
+        int next = index;
+
+        while(true) {
+            next = (next + 1) & mask;
+            if(keys[next] == null) break;
+
+            int home = slotOf(mostSigBits[next], leastSigBits[next]);
+            boolean reachable = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if(reachable) continue;
+
+            mostSigBits[hole] = mostSigBits[next];
+            leastSigBits[hole] = leastSigBits[next];
+            expiries[hole] = expiries[next];
+            keys[hole] = keys[next];
+            hole = next;
+        }
+
+        mostSigBits[hole] = 0L;
+        leastSigBits[hole] = 0L;
+        expiries[hole] = EMPTY;
+        keys[hole] = null;
+        size--;
+    }
+
+    /**
+     * Gets the home slot of a key.
+     * @param msb The most significant bits of the UUID.
+     * @param lsb The least significant bits of the UUID.
+     * @return The home slot index.
+     */
+    private int slotOf(long msb, long lsb) {
+        long hash = msb ^ lsb;
+        int mixed = (int) (hash ^ (hash >>> 32)) * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & mask;
+    }
+
+    /**
+     * Grows the backing arrays and re-inserts every entry.
+     * @param capacity The new capacity. Must be a power of two.
+     */
+    private void resize(int capacity) {
+        UUID[] oldKeys = keys;
+        long[] oldExpiries = expiries;
+
+        allocate(capacity);
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != null) insert(oldKeys[i], oldExpiries[i]);
+        }
+    }
+
+    /**
+     * Allocates empty backing arrays.
+     * @param capacity The capacity. Must be a power of two.
+     */
+    private void allocate(int capacity) {
+        mostSigBits = new long[capacity];
+        leastSigBits = new long[capacity];
+        expiries = new long[capacity];
+        keys = new UUID[capacity];
+        expiredIndexes = new int[capacity];
+        expiredKeys = new UUID[capacity];
+        mask = capacity - 1;
+
+        Arrays.fill(expiries, EMPTY);
+    }
+}
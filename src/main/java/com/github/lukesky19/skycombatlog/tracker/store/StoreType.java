@@ -0,0 +1,32 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+/**
+ * The data structure the main thread tracker stores combat deadlines in.
+ */
+public enum StoreType {
+    /**
+     * A hierarchical timing wheel that only touches the players expiring each tick. (Default)
+     */
+    TIMING_WHEEL,
+    /**
+     * Parallel primitive arrays with open-addressed indexing, scanned in bulk for expired players.
+     */
+    PACKED
+}
@@ -0,0 +1,80 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+import com.github.lukesky19.skycombatlog.util.TimingWheel;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A {@link CombatStore} backed by a {@link TimingWheel}.
+ */
+public class WheelCombatStore implements CombatStore {
+    // HashMap.Node + wheel node + hash table slot per entry.
+    private static final long BYTES_PER_ENTRY = 32L + 40L + 4L;
+    // 4 levels of 64 slot references.
+    private static final long FIXED_BYTES = 4L * 64L * 4L;
+
+    private final TimingWheel<UUID> combatTimers = new TimingWheel<>(0L);
+
+    @Override
+    public void put(@NotNull UUID uuid, long deadline) {
+        combatTimers.schedule(uuid, deadline);
+    }
+
+    @Override
+    public boolean remove(@NotNull UUID uuid) {
+        return combatTimers.cancel(uuid);
+    }
+
+    @Override
+    public boolean contains(@NotNull UUID uuid) {
+        return combatTimers.contains(uuid);
+    }
+
+    @Override
+    public long getDeadline(@NotNull UUID uuid) {
+        long deadline = combatTimers.getDeadline(uuid);
+        if(deadline == TimingWheel.NO_DEADLINE) return NO_DEADLINE;
+
+        return deadline;
+    }
+
+    @Override
+    public int size() {
+        return combatTimers.size();
+    }
+
+    @Override
+    public long estimateFootprintBytes() {
+        return FIXED_BYTES + combatTimers.size() * BYTES_PER_ENTRY;
+    }
+
+    @Override
+    public void expire(long currentTick, @NotNull Consumer<UUID> expired) {
+        combatTimers.advance(currentTick, expired);
+    }
+
+    @Override
+    public void forEach(@NotNull ObjLongConsumer<UUID> consumer) {
+        combatTimers.forEach(consumer);
+    }
+}
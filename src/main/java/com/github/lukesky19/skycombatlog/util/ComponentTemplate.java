@@ -0,0 +1,84 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.util;
+
+import com.github.lukesky19.skylib.format.FormatUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextReplacementConfig;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A MiniMessage string parsed once into a Component, with its placeholders left as literal {@code <name>} slots.
+ * Rendering only fills the slots and never re-parses the MiniMessage string.
+ */
+public final class ComponentTemplate {
+    private final Component component;
+
+    /**
+     * Constructor
+     * @param component The parsed Component.
+     */
+    private ComponentTemplate(@NotNull Component component) {
+        this.component = component;
+    }
+
+    /**
+     * Parses a MiniMessage string into a template. Placeholders without a resolver are kept as literal text.
+     * @param miniMessage The MiniMessage string.
+     * @return A ComponentTemplate
+     */
+    @NotNull
+    public static ComponentTemplate parse(@NotNull String miniMessage) {
+        return new ComponentTemplate(FormatUtil.format(miniMessage));
+    }
+
+    /**
+     * Gets the template as-is, for messages without placeholders.
+     * @return The parsed Component.
+     */
+    @NotNull
+    public Component render() {
+        return component;
+    }
+
+    /**
+     * Fills a placeholder slot of the template.
+     * @param placeholder The name of the placeholder, without angle brackets.
+     * @param value The value to fill the slot with.
+     * @return The rendered Component.
+     */
+    @NotNull
+    public Component render(@NotNull String placeholder, @NotNull ComponentLike value) {
+        return component.replaceText(TextReplacementConfig.builder()
+                .matchLiteral("<" + placeholder + ">")
+                .replacement(value)
+                .build());
+    }
+
+    /**
+     * Fills a placeholder slot of the template with plain text.
+     * @param placeholder The name of the placeholder, without angle brackets.
+     * @param value The text to fill the slot with.
+     * @return The rendered Component.
+     */
+    @NotNull
+    public Component render(@NotNull String placeholder, @NotNull String value) {
+        return render(placeholder, Component.text(value));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe hashed set where every entry expires after a time-to-live and the number of entries is capped.
+ * When full, the oldest entry is evicted to make room.
+ * @param <K> The key type.
+ */
+public class ExpiringSet<K> {
+    private final LinkedHashMap<K, Long> expiries = new LinkedHashMap<>();
+    private final long ttlMillis;
+    private final int capacity;
+
+    /**
+     * Constructor
+     * @param ttlMillis How long an entry lives for in milliseconds.
+     * @param capacity The maximum number of entries.
+     */
+    public ExpiringSet(long ttlMillis, int capacity) {
+        this.ttlMillis = ttlMillis;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds an entry or resets its time-to-live.
+     * @param key The key.
+     */
+    public synchronized void add(@NotNull K key) {
+        // Re-insert so insertion order stays the order entries expire in.
+        expiries.remove(key);
+        expiries.put(key, now() + ttlMillis);
+
+        while(expiries.size() > capacity) {
+            Iterator<K> iterator = expiries.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes an entry.
+     * @param key The key.
+     * @return true if the entry existed and had not expired, false if not.
+     */
+    public synchronized boolean remove(@NotNull K key) {
+        Long expiry = expiries.remove(key);
+        return expiry != null && expiry > now();
+    }
+
+    /**
+     * Checks if an entry exists and has not expired.
+     * @param key The key.
+     * @return true if the entry exists and has not expired, false if not.
+     */
+    public synchronized boolean contains(@NotNull K key) {
+        Long expiry = expiries.get(key);
+        if(expiry == null) return false;
+
+        if(expiry <= now()) {
+            expiries.remove(key);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of entries, including expired entries that have not been purged yet.
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return expiries.size();
+    }
+
+    /**
+     * Estimates the heap used by the set, assuming compressed object pointers.
+     * @return The estimated footprint in bytes.
+     */
+    public synchronized long estimateFootprintBytes() {
+        // LinkedHashMap.Entry + boxed Long + table slot per entry.
+        return expiries.size() * (40L + 16L + 4L);
+    }
+
+    /**
+     * Removes every expired entry.
+     * @return The number of entries removed.
+     */
+    public synchronized int purge() {
+        long now = now();
+        int removed = 0;
+
+        Iterator<Map.Entry<K, Long>> iterator = expiries.entrySet().iterator();
+        while(iterator.hasNext()) {
+            // Entries are in expiry order, so stop at the first live one.
+            if(iterator.next().getValue() > now) break;
+
+            iterator.remove();
+            removed++;
+        }
+
+        return removed;
+    }
+
+    /**
+     * Gets a monotonic timestamp in milliseconds.
+     * @return The current timestamp in milliseconds.
+     */
+    private long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with primitive long keys, so lookups neither box the key nor chase entry objects.
+ * Not thread-safe. Meant to be filled once and then only read, it is safe to share between threads after publishing.
+ * @param <V> The value type.
+ */
+public class LongHashMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    // Key 0 marks an empty slot, so a value stored under 0 is kept aside.
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /**
+     * Constructor
+     */
+    public LongHashMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * Gets the value stored under a key.
+     * @param key The key.
+     * @return The value or null if there is none.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if(key == 0L) return hasZeroKey ? zeroValue : null;
+
+        int index = slot(key);
+        while(true) {
+            long current = keys[index];
+            if(current == key) return (V) values[index];
+            if(current == 0L) return null;
+
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Stores a value under a key, replacing any existing value.
+     * @param key The key.
+     * @param value The value.
+     */
+    public void put(long key, V value) {
+        if(key == 0L) {
+            if(!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+
+        int index = slot(key);
+        while(keys[index] != 0L) {
+            if(keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        if(size > keys.length * LOAD_FACTOR) grow();
+    }
+
+    /**
+     * Gets the number of keys.
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the capacity and re-inserts every key.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = hasZeroKey ? 1 : 0;
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != 0L) put(oldKeys[i], (V) oldValues[i]);
+        }
+
+        Arrays.fill(oldValues, null);
+    }
+
+    /**
+     * Gets the home slot of a key.
+     * @param key The key.
+     * @return The slot index.
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
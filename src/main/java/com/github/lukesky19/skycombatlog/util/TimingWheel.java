@@ -0,0 +1,290 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A hierarchical timing wheel that stores an absolute expiry tick per key.
+ * Advancing the wheel only touches the entries filed in the slot for that tick, entries further in the future are
+ * cascaded down into finer levels as their deadline gets closer.
+ * @param <K> The key type.
+ */
+public class TimingWheel<K> {
+    /**
+     * Returned by {@link #getDeadline(Object)} when the key is not scheduled.
+     */
+    public static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+    // The level of a node taken out of its slot because it is due, while it waits for its callback.
+    private static final int DETACHED = -1;
+
+    private final HashMap<K, Node<K>> nodes = new HashMap<>();
+    private final Node<K>[][] slots;
+    private long currentTick;
+
+    /**
+     * Constructor
+     * @param startTick The tick the wheel starts at.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.slots = new Node[LEVELS][SLOTS];
+    }
+
+    /**
+     * Gets the last tick the wheel was advanced to.
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Schedules a key to expire at the given tick, replacing any existing deadline for it.
+     * Re-scheduling an existing key re-uses its node and does not allocate.
+     * @param key The key.
+     * @param deadline The absolute tick the key expires at.
+     */
+    public void schedule(@NotNull K key, long deadline) {
+        Node<K> node = nodes.get(key);
+        if(node == null || node.level == DETACHED) {
+            // A due node is still linked into the list being expired, so a re-scheduled key gets a fresh node.
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            unlink(node);
+        }
+
+        node.deadline = deadline;
+        file(node, currentTick + 1);
+    }
+
+    /**
+     * Removes a key from the wheel.
+     * @param key The key.
+     * @return true if the key was scheduled, false if not.
+     */
+    public boolean cancel(@NotNull K key) {
+        Node<K> node = nodes.remove(key);
+        if(node == null) return false;
+
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Checks if a key is scheduled.
+     * @param key The key.
+     * @return true if scheduled, false if not.
+     */
+    public boolean contains(@NotNull K key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     * Gets the absolute tick a key expires at.
+     * @param key The key.
+     * @return The deadline or {@link #NO_DEADLINE} if the key is not scheduled.
+     */
+    public long getDeadline(@NotNull K key) {
+        Node<K> node = nodes.get(key);
+        if(node == null) return NO_DEADLINE;
+
+        return node.deadline;
+    }
+
+    /**
+     * Gets the number of scheduled keys.
+     * @return The number of scheduled keys.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Iterates every scheduled key and its deadline.
+     * @param consumer The consumer to pass each key and deadline to.
+     */
+    public void forEach(@NotNull ObjLongConsumer<K> consumer) {
+        for(Node<K> node : nodes.values()) {
+            consumer.accept(node.key, node.deadline);
+        }
+    }
+
+    /**
+     * Removes every scheduled key.
+     */
+    public void clear() {
+        nodes.clear();
+        for(Node<K>[] level : slots) {
+            Arrays.fill(level, null);
+        }
+    }
+
+    /**
+     * Advances the wheel one tick at a time up to the target tick, passing every key that expired to the consumer.
+     * Expired keys are removed before the consumer is called. The consumer may schedule or cancel any key, a key due
+     * this tick that it cancels or re-schedules is not passed to it.
+     * @param targetTick The tick to advance to.
+     * @param expired The consumer to pass expired keys to.
+     */
+    public void advance(long targetTick, @NotNull Consumer<K> expired) {
+        while(currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade coarser levels first so entries landing in level 0 are handled this same tick.
+            for(int level = LEVELS - 1; level > 0; level--) {
+                if((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                }
+            }
+
+            // Detach the whole slot before any callback runs, so callbacks cannot change the list being walked.
+            int index = (int) (currentTick & SLOT_MASK);
+            Node<K> node = slots[0][index];
+            slots[0][index] = null;
+
+            Node<K> due = null;
+            Node<K> lastDue = null;
+            while(node != null) {
+                Node<K> next = node.next;
+                node.prev = null;
+                if(node.deadline <= currentTick) {
+                    node.level = DETACHED;
+                    node.next = null;
+                    if(lastDue == null) {
+                        due = node;
+                    } else {
+                        lastDue.next = node;
+                    }
+                    lastDue = node;
+                } else {
+                    node.next = null;
+                    file(node, currentTick + 1);
+                }
+                node = next;
+            }
+
+            while(due != null) {
+                Node<K> next = due.next;
+                due.next = null;
+                // Skip keys an earlier callback cancelled or re-scheduled.
+                if(nodes.get(due.key) == due) {
+                    nodes.remove(due.key);
+                    expired.accept(due.key);
+                }
+                due = next;
+            }
+        }
+    }
+
+    /**
+     * Re-files every node in a slot of a coarser level into the level that now matches its remaining delay.
+     * @param level The level.
+     * @param index The slot index.
+     */
+    private void cascade(int level, int index) {
+        Node<K> node = slots[level][index];
+        slots[level][index] = null;
+
+        while(node != null) {
+            Node<K> next = node.next;
+            node.prev = null;
+            node.next = null;
+            // The level 0 slot for the current tick has not been processed yet, so entries due now can land in it.
+            file(node, currentTick);
+            node = next;
+        }
+    }
+
+    /**
+     * Places a node into the slot matching its deadline.
+     * @param node The node.
+     * @param earliestTick The earliest tick the node may be filed at. Anything already due fires at this tick.
+     */
+    private void file(@NotNull Node<K> node, long earliestTick) {
+        long target = Math.max(node.deadline, earliestTick);
+        long delay = target - currentTick;
+        if(delay > MAX_DELAY) {
+            // Park beyond-horizon entries in the last reachable slot; the cascade will re-file them.
+            target = currentTick + MAX_DELAY;
+            delay = MAX_DELAY;
+        }
+
+        int level = 0;
+        while(level < LEVELS - 1 && (delay >>> (SLOT_BITS * (level + 1))) != 0) {
+            level++;
+        }
+
+        int index = (int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK);
+        node.level = level;
+        node.index = index;
+        node.prev = null;
+        node.next = slots[level][index];
+        if(node.next != null) node.next.prev = node;
+        slots[level][index] = node;
+    }
+
+    /**
+     * Removes a node from the slot it is filed in.
+     * @param node The node.
+     */
+    private void unlink(@NotNull Node<K> node) {
+        if(node.level == DETACHED) return;
+
+        if(node.prev != null) {
+            node.prev.next = node.next;
+        } else if(slots[node.level][node.index] == node) {
+            slots[node.level][node.index] = node.next;
+        }
+
+        if(node.next != null) node.next.prev = node.prev;
+
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * A scheduled key linked into a wheel slot.
+     * @param <K> The key type.
+     */
+    private static final class Node<K> {
+        private final K key;
+        private long deadline;
+        private int level;
+        private int index;
+        private Node<K> prev;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.zone;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A safe zone compiled into its bounding box and, for polygons, flat arrays of its corners.
+ */
+final class CompiledSafeZone {
+    private final String name;
+    private final double minX;
+    private final double maxX;
+    private final double minY;
+    private final double maxY;
+    private final double minZ;
+    private final double maxZ;
+    private final double[] xs;
+    private final double[] zs;
+
+    /**
+     * Constructor
+     * @param name The name of the zone, used in logs.
+     * @param xs The x coordinates of the corners.
+     * @param zs The z coordinates of the corners.
+     * @param minY The lowest y coordinate inside the zone.
+     * @param maxY The highest y coordinate inside the zone.
+     * @param polygon true if the corners form a polygon, false if the bounding box is the whole zone.
+     */
+    CompiledSafeZone(@NotNull String name, double[] xs, double[] zs, double minY, double maxY, boolean polygon) {
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minZ = Math.min(minZ, zs[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+
+        this.name = name;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = Math.min(minY, maxY);
+        this.maxY = Math.max(minY, maxY);
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+        this.xs = polygon ? xs : null;
+        this.zs = polygon ? zs : null;
+    }
+
+    /**
+     * Gets the name of the zone.
+     * @return The name of the zone.
+     */
+    @NotNull
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the lowest chunk x coordinate the zone overlaps.
+     * @return The chunk x coordinate.
+     */
+    int getMinChunkX() {
+        return (int) Math.floor(minX) >> 4;
+    }
+
+    /**
+     * Gets the highest chunk x coordinate the zone overlaps.
+     * @return The chunk x coordinate.
+     */
+    int getMaxChunkX() {
+        return (int) Math.floor(maxX) >> 4;
+    }
+
+    /**
+     * Gets the lowest chunk z coordinate the zone overlaps.
+     * @return The chunk z coordinate.
+     */
+    int getMinChunkZ() {
+        return (int) Math.floor(minZ) >> 4;
+    }
+
+    /**
+     * Gets the highest chunk z coordinate the zone overlaps.
+     * @return The chunk z coordinate.
+     */
+    int getMaxChunkZ() {
+        return (int) Math.floor(maxZ) >> 4;
+    }
+
+    /**
+     * Checks if a position is inside the zone. Bounds are inclusive.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return true if inside, false if not.
+     */
+    boolean contains(double x, double y, double z) {
+        if(x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) return false;
+        if(xs == null) return true;
+
+        // Even-odd ray casting along the x axis.
+        boolean inside = false;
+        for(int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if((zs[i] > z) != (zs[j] > z) && x < (xs[j] - xs[i]) * (z - zs[i]) / (zs[j] - zs[i]) + xs[i]) {
+                inside = !inside;
+            }
+        }
+
+        return inside;
+    }
+}
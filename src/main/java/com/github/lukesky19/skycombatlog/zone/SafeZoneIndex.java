@@ -0,0 +1,194 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.zone;
+
+import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.util.LongHashMap;
+import com.github.lukesky19.skylib.format.FormatUtil;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The safe zones from settings.yml indexed by world and chunk.
+ * Every chunk a zone overlaps maps to the zones that are candidates for it, so checking a position is one lookup by
+ * world name, one primitive lookup by packed chunk key, and a bounds check per candidate zone.
+ * Immutable once compiled and safe to read from any thread.
+ */
+public final class SafeZoneIndex {
+    /**
+     * An index without any safe zones.
+     */
+    public static final SafeZoneIndex EMPTY = new SafeZoneIndex(Map.of(), 0);
+
+    // A zone larger than this many chunks is most likely a typo, and would take a lot of memory to index.
+    private static final long MAX_CHUNKS_PER_ZONE = 1_000_000L;
+
+    private final Map<String, LongHashMap<CompiledSafeZone[]>> worlds;
+    private final int zoneCount;
+
+    /**
+     * Constructor
+     * @param worlds The chunk indexes, keyed by world name.
+     * @param zoneCount The number of indexed zones.
+     */
+    private SafeZoneIndex(@NotNull Map<String, LongHashMap<CompiledSafeZone[]>> worlds, int zoneCount) {
+        this.worlds = worlds;
+        this.zoneCount = zoneCount;
+    }
+
+    /**
+     * Compiles the safe zones from settings.yml. Invalid zones are skipped with a warning.
+     * @param safeZones The safe zones keyed by name, may be null.
+     * @param logger The ComponentLogger to warn about invalid zones with.
+     * @return A SafeZoneIndex
+     */
+    @NotNull
+    public static SafeZoneIndex compile(@Nullable Map<String, Settings.SafeZone> safeZones, @NotNull ComponentLogger logger) {
+        if(safeZones == null || safeZones.isEmpty()) return EMPTY;
+
+        Map<String, Map<Long, List<CompiledSafeZone>>> candidates = new HashMap<>();
+        int zoneCount = 0;
+        for(Map.Entry<String, Settings.SafeZone> entry : safeZones.entrySet()) {
+            CompiledSafeZone zone = compileZone(entry.getKey(), entry.getValue(), logger);
+            if(zone == null) continue;
+
+            long chunks = (long) (zone.getMaxChunkX() - zone.getMinChunkX() + 1) * (zone.getMaxChunkZ() - zone.getMinChunkZ() + 1);
+            if(chunks > MAX_CHUNKS_PER_ZONE) {
+                logger.warn(FormatUtil.format("<yellow>The safe zone " + zone.getName() + " covers more than " + MAX_CHUNKS_PER_ZONE + " chunks and was skipped.</yellow>"));
+                continue;
+            }
+
+            Map<Long, List<CompiledSafeZone>> worldCandidates = candidates.computeIfAbsent(entry.getValue().world(), world -> new HashMap<>());
+            for(int chunkX = zone.getMinChunkX(); chunkX <= zone.getMaxChunkX(); chunkX++) {
+                for(int chunkZ = zone.getMinChunkZ(); chunkZ <= zone.getMaxChunkZ(); chunkZ++) {
+                    worldCandidates.computeIfAbsent(chunkKey(chunkX, chunkZ), key -> new ArrayList<>()).add(zone);
+                }
+            }
+
+            zoneCount++;
+        }
+
+        Map<String, LongHashMap<CompiledSafeZone[]>> worlds = new HashMap<>();
+        candidates.forEach((world, worldCandidates) -> {
+            LongHashMap<CompiledSafeZone[]> chunkIndex = new LongHashMap<>();
+            worldCandidates.forEach((key, zones) -> chunkIndex.put(key, zones.toArray(new CompiledSafeZone[0])));
+            worlds.put(world, chunkIndex);
+        });
+
+        return new SafeZoneIndex(worlds, zoneCount);
+    }
+
+    /**
+     * Checks if a location is inside any safe zone.
+     * @param location The Location
+     * @return true if inside a safe zone, false if not.
+     */
+    public boolean isSafe(@NotNull Location location) {
+        if(zoneCount == 0) return false;
+
+        World world = location.getWorld();
+        if(world == null) return false;
+
+        return isSafe(world.getName(), location.getX(), location.getY(), location.getZ());
+    }
+
+    /**
+     * Checks if a position is inside any safe zone.
+     * @param worldName The name of the world.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return true if inside a safe zone, false if not.
+     */
+    public boolean isSafe(@NotNull String worldName, double x, double y, double z) {
+        LongHashMap<CompiledSafeZone[]> chunkIndex = worlds.get(worldName);
+        if(chunkIndex == null) return false;
+
+        CompiledSafeZone[] zones = chunkIndex.get(chunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4));
+        if(zones == null) return false;
+
+        for(CompiledSafeZone zone : zones) {
+            if(zone.contains(x, y, z)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the number of indexed zones.
+     * @return The number of zones.
+     */
+    public int size() {
+        return zoneCount;
+    }
+
+    /**
+     * Compiles a single safe zone from its configuration.
+     * @param name The name of the zone.
+     * @param safeZone The zone's configuration.
+     * @param logger The ComponentLogger to warn about an invalid zone with.
+     * @return The compiled zone or null if invalid.
+     */
+    @Nullable
+    private static CompiledSafeZone compileZone(@NotNull String name, @Nullable Settings.SafeZone safeZone, @NotNull ComponentLogger logger) {
+        if(safeZone == null || safeZone.world() == null || safeZone.shape() == null || safeZone.points() == null) {
+            logger.warn(FormatUtil.format("<yellow>The safe zone " + name + " is missing its world, shape or points and was skipped.</yellow>"));
+            return null;
+        }
+
+        List<Settings.Point> points = safeZone.points();
+        int required = safeZone.shape() == ZoneShape.CUBOID ? 2 : 3;
+        if(points.size() < required || (safeZone.shape() == ZoneShape.CUBOID && points.size() != 2)) {
+            logger.warn(FormatUtil.format("<yellow>The safe zone " + name + " needs " + (safeZone.shape() == ZoneShape.CUBOID ? "exactly 2" : "at least 3") + " points and was skipped.</yellow>"));
+            return null;
+        }
+
+        double[] xs = new double[points.size()];
+        double[] zs = new double[points.size()];
+        for(int i = 0; i < points.size(); i++) {
+            Settings.Point point = points.get(i);
+            if(point == null) {
+                logger.warn(FormatUtil.format("<yellow>The safe zone " + name + " has an empty point and was skipped.</yellow>"));
+                return null;
+            }
+
+            xs[i] = point.x();
+            zs[i] = point.z();
+        }
+
+        return new CompiledSafeZone(name, xs, zs, safeZone.minY(), safeZone.maxY(), safeZone.shape() == ZoneShape.POLYGON);
+    }
+
+    /**
+     * Packs chunk coordinates into a single long.
+     * @param chunkX The chunk x coordinate.
+     * @param chunkZ The chunk z coordinate.
+     * @return The chunk key.
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,280 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog;
+
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.fixture.Fixtures;
+import com.github.lukesky19.skycombatlog.listener.PlayerDamageListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerTeleportListener;
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.policy.CombatRuleCache;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.tracker.BukkitCombatTracker;
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import org.bukkit.Location;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes allocated per operation on the combat hot paths and fails when any goes over its checked-in budget.
+ * Allocations are read from the thread's allocation counter around a batch of operations, after a warmup so the JIT
+ * has had the chance to remove allocations it can.
+ * Budgets include what the stubbed server and players allocate when called, which is the same from run to run.
+ * Runs as part of {@code ./gradlew test}. Pass {@code -PupdateAllocationBudget} to write the measured values, with
+ * headroom, back to the budget file after an intended change.
+ */
+public class AllocationGateTest {
+    private static final int PLAYERS = 200;
+    // The settings.yml default, so action bars come from the table pre-rendered at reload like they do for players.
+    // Players are re-tagged before every timer batch, so nobody expires during the gate.
+    private static final int COMBAT_TIME = 60;
+    private static final int WARMUP_BATCHES = 50;
+    private static final int MEASURED_BATCHES = 20;
+    private static final double UPDATE_HEADROOM = 1.25;
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final List<Player> players = new ArrayList<>();
+    private CombatManager combatManager;
+    private BukkitCombatTracker tracker;
+    private PlayerDamageListener damageListener;
+    private PlayerTeleportListener teleportListener;
+    private EntityDamageByEntityEvent[] damageEvents;
+    private PlayerTeleportEvent[] teleportEvents;
+
+    @Test
+    public void hotPathsStayWithinTheirAllocationBudget() throws Exception {
+        assumeTrue(THREAD_BEAN.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported by this JVM.");
+        String budgetPath = System.getProperty("allocationBudget");
+        assertNotNull(budgetPath, "The allocationBudget system property must point to the budget file.");
+        Path budgetFile = Path.of(budgetPath);
+
+        setup();
+        Map<String, Double> measured = measure();
+
+        if(Boolean.getBoolean("updateAllocationBudget")) {
+            writeBudget(budgetFile, measured);
+            return;
+        }
+
+        Properties budget = readBudget(budgetFile);
+        List<String> failures = new ArrayList<>();
+        for(Map.Entry<String, Double> entry : measured.entrySet()) {
+            String limit = budget.getProperty(entry.getKey());
+            if(limit == null) {
+                failures.add(String.format("%s: %.1f bytes/op, no budget", entry.getKey(), entry.getValue()));
+            } else if(entry.getValue() > Double.parseDouble(limit)) {
+                failures.add(String.format("%s: %.1f bytes/op, budget %s", entry.getKey(), entry.getValue(), limit));
+            }
+        }
+
+        assertTrue(failures.isEmpty(), "Over the allocation budget. If the increase is intended, re-run with "
+                + "-PupdateAllocationBudget to raise it.\n" + String.join("\n", failures));
+    }
+
+    /**
+     * Creates the plugin, tags every player and builds the events the operations are fed.
+     * @throws Exception If the fixtures could not be created.
+     */
+    @SuppressWarnings({"deprecation", "UnstableApiUsage"})
+    private void setup() throws Exception {
+        Map<UUID, Player> online = new HashMap<>();
+        for(int i = 0; i < PLAYERS; i++) {
+            Player player = Fixtures.player(new UUID(0L, i + 1L), "Player" + i);
+            players.add(player);
+            online.put(player.getUniqueId(), player);
+        }
+
+        SkyCombatLog skyCombatLog = Fixtures.plugin(Fixtures.server(online));
+        SettingsManager settingsManager = new SettingsManager(skyCombatLog);
+        LocaleManager localeManager = new LocaleManager(skyCombatLog, settingsManager);
+        Fixtures.setSettings(settingsManager, localeManager, Fixtures.settings(COMBAT_TIME, StoreType.TIMING_WHEEL, TimerScheduling.SPREAD));
+
+        CombatStats combatStats = new CombatStats();
+        combatManager = new CombatManager(skyCombatLog, settingsManager, localeManager, combatStats);
+        combatManager.startTimerTask();
+        tracker = (BukkitCombatTracker) combatManager.getCombatTracker();
+        damageListener = new PlayerDamageListener(settingsManager, combatManager, combatStats, new CombatRuleCache(settingsManager));
+        teleportListener = new PlayerTeleportListener(localeManager, combatManager, combatStats);
+
+        Location location = new Location(null, 0, 64, 0);
+        damageEvents = new EntityDamageByEntityEvent[PLAYERS];
+        teleportEvents = new PlayerTeleportEvent[PLAYERS];
+        for(int i = 0; i < PLAYERS; i++) {
+            Player attacker = players.get(i);
+            Player victim = players.get((i + 1) % PLAYERS);
+            DamageSource damageSource = Fixtures.stub(DamageSource.class, Map.of(
+                    "getCausingEntity", args -> attacker,
+                    "getDirectEntity", args -> attacker));
+            damageEvents[i] = new EntityDamageByEntityEvent(attacker, victim, EntityDamageEvent.DamageCause.ENTITY_ATTACK, damageSource, 4.0);
+            teleportEvents[i] = new PlayerTeleportEvent(attacker, location, location, PlayerTeleportEvent.TeleportCause.COMMAND);
+        }
+
+        // Tag everyone over one second, like a real fight, so every update bucket is filled.
+        for(int i = 0; i < PLAYERS; i++) {
+            combatManager.addPlayerInCombat(players.get(i), players.get(i).getUniqueId());
+            if((i + 1) % (PLAYERS / 20) == 0) tracker.tick();
+        }
+    }
+
+    /**
+     * Measures every operation.
+     * @return The bytes allocated per operation, keyed by operation name.
+     */
+    @NotNull
+    private Map<String, Double> measure() {
+        Map<String, Double> measured = new LinkedHashMap<>();
+
+        // A new tag of a player not in combat. Untagging is left out of the measurement.
+        measured.put("tag", measure(PLAYERS, () -> {
+            for(Player player : players) combatManager.removePlayerInCombat(player, player.getUniqueId());
+        }, () -> {
+            for(Player player : players) combatManager.addPlayerInCombat(player, player.getUniqueId());
+        }));
+
+        // A player-vs-player hit between two players already in combat, through the damage listener.
+        measured.put("refresh", measure(PLAYERS, null, () -> {
+            for(EntityDamageByEntityEvent damageEvent : damageEvents) damageListener.onPlayerDamage(damageEvent);
+        }));
+
+        // One tick of the combat timer with every player tagged. Re-tagging is left out of the measurement.
+        measured.put("tick", measure(20, () -> {
+            for(Player player : players) combatManager.addPlayerInCombat(player, player.getUniqueId());
+        }, () -> {
+            for(int i = 0; i < 20; i++) tracker.tick();
+        }));
+
+        // A blocked teleport by a player in combat.
+        measured.put("teleportCheck", measure(PLAYERS, null, () -> {
+            for(PlayerTeleportEvent teleportEvent : teleportEvents) {
+                teleportEvent.setCancelled(false);
+                teleportListener.onTeleport(teleportEvent);
+            }
+        }));
+
+        return measured;
+    }
+
+    /**
+     * Runs warmup batches, then measured batches, of an operation.
+     * @param operationsPerBatch How many operations one batch runs.
+     * @param prepare Runs before each batch without being measured, may be null.
+     * @param batch Runs one batch of operations.
+     * @return The bytes allocated per operation, averaged over the measured batches.
+     */
+    private double measure(int operationsPerBatch, Runnable prepare, @NotNull Runnable batch) {
+        long threadId = Thread.currentThread().threadId();
+
+        for(int i = 0; i < WARMUP_BATCHES; i++) {
+            if(prepare != null) prepare.run();
+            batch.run();
+        }
+
+        long allocatedBytes = 0L;
+        for(int i = 0; i < MEASURED_BATCHES; i++) {
+            if(prepare != null) prepare.run();
+
+            long startBytes = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+            batch.run();
+            allocatedBytes += THREAD_BEAN.getThreadAllocatedBytes(threadId) - startBytes;
+        }
+
+        return (double) allocatedBytes / ((long) MEASURED_BATCHES * operationsPerBatch);
+    }
+
+    /**
+     * Reads the budget file.
+     * @param budgetFile The path of the budget file.
+     * @return The budgets in bytes per operation, keyed by operation name.
+     * @throws IOException If the file could not be read.
+     */
+    @NotNull
+    private static Properties readBudget(@NotNull Path budgetFile) throws IOException {
+        Properties budget = new Properties();
+        try(InputStream inputStream = Files.newInputStream(budgetFile)) {
+            budget.load(inputStream);
+        }
+
+        return budget;
+    }
+
+    /**
+     * Writes measured allocations, with headroom, to the budget file.
+     * Existing budgets are replaced in place so the file's comments and order are kept, new operations are appended.
+     * @param budgetFile The path of the budget file.
+     * @param measured The bytes allocated per operation, keyed by operation name.
+     * @throws IOException If the file could not be read or written.
+     */
+    private static void writeBudget(@NotNull Path budgetFile, @NotNull Map<String, Double> measured) throws IOException {
+        List<String> lines = Files.exists(budgetFile) ? new ArrayList<>(Files.readAllLines(budgetFile)) : new ArrayList<>();
+        Set<String> written = new HashSet<>();
+
+        for(int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            int separator = line.indexOf('=');
+            if(line.startsWith("#") || separator == -1) continue;
+
+            String operation = line.substring(0, separator).trim();
+            Double bytes = measured.get(operation);
+            if(bytes == null) continue;
+
+            lines.set(i, operation + "=" + toBudget(bytes));
+            written.add(operation);
+        }
+
+        measured.forEach((operation, bytes) -> {
+            if(!written.contains(operation)) lines.add(operation + "=" + toBudget(bytes));
+        });
+
+        Files.write(budgetFile, lines);
+    }
+
+    /**
+     * Adds headroom to a measured allocation.
+     * @param bytes The measured bytes per operation.
+     * @return The budget in bytes per operation.
+     */
+    private static long toBudget(double bytes) {
+        return (long) Math.ceil(Math.max(8.0, bytes) * UPDATE_HEADROOM);
+    }
+}
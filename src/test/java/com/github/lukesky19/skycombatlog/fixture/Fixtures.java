@@ -0,0 +1,237 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.fixture;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.configuration.record.ConfigSnapshot;
+import com.github.lukesky19.skycombatlog.configuration.record.Settings;
+import com.github.lukesky19.skycombatlog.tracker.ExecutionMode;
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.jetbrains.annotations.NotNull;
+import sun.misc.Unsafe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight stand-ins for the server objects the plugin talks to, so its hot paths can run without a server.
+ * Interfaces are stubbed with dynamic proxies that answer a handful of methods and return defaults for the rest.
+ */
+public final class Fixtures {
+    private Fixtures() {}
+
+    /**
+     * Creates a stub of an interface.
+     * @param type The interface to stub.
+     * @param answers The answers for stubbed methods, keyed by method name.
+     * @return The stub.
+     * @param <T> The interface type.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(@NotNull Class<T> type, @NotNull Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if(answer != null) return answer.apply(args);
+
+            return switch(method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> type.getSimpleName() + "Stub";
+                default -> defaultValue(method.getReturnType());
+            };
+        });
+    }
+
+    /**
+     * Creates an online player stub.
+     * @param uuid The UUID of the player.
+     * @param name The name of the player.
+     * @return A Player stub
+     */
+    @NotNull
+    public static Player player(@NotNull UUID uuid, @NotNull String name) {
+        return stub(Player.class, Map.of(
+                "getUniqueId", args -> uuid,
+                "getName", args -> name,
+                "isOnline", args -> true,
+                "isConnected", args -> true));
+    }
+
+    /**
+     * Creates a server stub whose global region scheduler runs tasks immediately and whose BukkitScheduler does nothing.
+     * @param players The online players, keyed by UUID.
+     * @return A Server stub
+     */
+    @NotNull
+    public static Server server(@NotNull Map<UUID, Player> players) {
+        return server(players, () -> 0);
+    }
+
+    /**
+     * Creates a server stub whose global region scheduler runs tasks immediately and whose BukkitScheduler does nothing.
+     * @param players The online players, keyed by UUID.
+     * @param currentTick Supplies the server tick, so a virtual clock can drive it.
+     * @return A Server stub
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static Server server(@NotNull Map<UUID, Player> players, @NotNull IntSupplier currentTick) {
+        GlobalRegionScheduler globalRegionScheduler = stub(GlobalRegionScheduler.class, Map.of(
+                "run", args -> {
+                    ((Consumer<ScheduledTask>) args[1]).accept(null);
+                    return null;
+                }));
+        BukkitScheduler scheduler = stub(BukkitScheduler.class, Map.of());
+
+        return stub(Server.class, Map.of(
+                "getPlayer", args -> args[0] instanceof UUID uuid ? players.get(uuid) : null,
+                "getOnlinePlayers", args -> players.values(),
+                "getScheduler", args -> scheduler,
+                "getGlobalRegionScheduler", args -> globalRegionScheduler,
+                "isOwnedByCurrentRegion", args -> true,
+                "getCurrentTick", args -> currentTick.getAsInt()));
+    }
+
+    /**
+     * Creates a plugin instance without going through the plugin loader.
+     * The data folder is populated with the bundled settings and locale files.
+     * @param server The Server stub to return from getServer().
+     * @return A SkyCombatLog instance
+     * @throws Exception If the instance could not be created.
+     */
+    @NotNull
+    public static SkyCombatLog plugin(@NotNull Server server) throws Exception {
+        Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+        unsafeField.setAccessible(true);
+        Unsafe unsafe = (Unsafe) unsafeField.get(null);
+
+        SkyCombatLog skyCombatLog = (SkyCombatLog) unsafe.allocateInstance(SkyCombatLog.class);
+        Path dataFolder = Files.createTempDirectory("skycombatlog-bench");
+        copyResource("settings.yml", dataFolder);
+        copyResource("locale/en_US.yml", dataFolder);
+
+        setField(JavaPlugin.class, skyCombatLog, "server", server);
+        setField(JavaPlugin.class, skyCombatLog, "dataFolder", dataFolder.toFile());
+        setField(JavaPlugin.class, skyCombatLog, "logger", Logger.getLogger("SkyCombatLog"));
+        return skyCombatLog;
+    }
+
+    /**
+     * Creates settings for the main thread tracker with everything optional disabled.
+     * @param combatTime The combat time in seconds.
+     * @param storeType The store to keep deadlines in.
+     * @return Settings
+     */
+    @NotNull
+    public static Settings settings(int combatTime, @NotNull StoreType storeType) {
+        return settings(combatTime, storeType, TimerScheduling.ALIGNED);
+    }
+
+    /**
+     * Creates settings for the main thread tracker with everything optional disabled.
+     * @param combatTime The combat time in seconds.
+     * @param storeType The store to keep deadlines in.
+     * @param timerScheduling How per-second updates are spread over the ticks of a second.
+     * @return Settings
+     */
+    @NotNull
+    public static Settings settings(int combatTime, @NotNull StoreType storeType, @NotNull TimerScheduling timerScheduling) {
+        return new Settings("1.0.0.0", "en_US", combatTime, ExecutionMode.BUKKIT, storeType, false, 0.0, 0, false, 0, timerScheduling, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Publishes the given settings, with the bundled locale, without reading settings.yml.
+     * @param settingsManager The SettingsManager
+     * @param localeManager The LocaleManager
+     * @param settings The Settings
+     */
+    public static void setSettings(@NotNull SettingsManager settingsManager, @NotNull LocaleManager localeManager, @NotNull Settings settings) {
+        ConfigSnapshot snapshot = localeManager.load(settings);
+        if(snapshot == null) throw new IllegalStateException("The bundled locale failed to load.");
+
+        settingsManager.publish(snapshot);
+    }
+
+    /**
+     * Sets a private field.
+     * @param owner The class declaring the field.
+     * @param target The object to set the field on.
+     * @param name The name of the field.
+     * @param value The value.
+     * @throws ReflectiveOperationException If the field could not be set.
+     */
+    private static void setField(@NotNull Class<?> owner, @NotNull Object target, @NotNull String name, Object value) throws ReflectiveOperationException {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Copies a bundled resource into the data folder.
+     * @param resource The resource path.
+     * @param dataFolder The data folder.
+     * @throws IOException If the resource could not be copied.
+     */
+    private static void copyResource(@NotNull String resource, @NotNull Path dataFolder) throws IOException {
+        Path target = dataFolder.resolve(resource);
+        Files.createDirectories(target.getParent());
+
+        try(InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if(inputStream == null) throw new IOException("Missing resource " + resource);
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Gets the default value of a return type.
+     * @param type The return type.
+     * @return The default value.
+     */
+    private static Object defaultValue(@NotNull Class<?> type) {
+        if(!type.isPrimitive() || type == void.class) return null;
+        if(type == boolean.class) return false;
+        if(type == long.class) return 0L;
+        if(type == double.class) return 0.0;
+        if(type == float.class) return 0.0f;
+        if(type == char.class) return '\0';
+        if(type == byte.class) return (byte) 0;
+        if(type == short.class) return (short) 0;
+        return 0;
+    }
+}
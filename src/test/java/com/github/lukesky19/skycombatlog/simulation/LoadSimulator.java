@@ -0,0 +1,435 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.simulation;
+
+import com.github.lukesky19.skycombatlog.SkyCombatLog;
+import com.github.lukesky19.skycombatlog.configuration.manager.LocaleManager;
+import com.github.lukesky19.skycombatlog.configuration.manager.SettingsManager;
+import com.github.lukesky19.skycombatlog.fixture.Fixtures;
+import com.github.lukesky19.skycombatlog.listener.PlayerDamageListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerJoinListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerQuitListener;
+import com.github.lukesky19.skycombatlog.listener.PlayerTeleportListener;
+import com.github.lukesky19.skycombatlog.manager.CombatLogBroadcaster;
+import com.github.lukesky19.skycombatlog.manager.CombatManager;
+import com.github.lukesky19.skycombatlog.policy.CombatRuleCache;
+import com.github.lukesky19.skycombatlog.punishment.PunishmentPipeline;
+import com.github.lukesky19.skycombatlog.stats.CombatStats;
+import com.github.lukesky19.skycombatlog.tracker.BukkitCombatTracker;
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Replays a synthetic player-vs-player trace against the listeners and the main thread combat timer, without a server.
+ * Time is a virtual tick clock advanced by the simulator, and every random choice comes from a seeded generator, so the
+ * same trace always produces the same calls.
+ * Reports per-tick time percentiles, allocations, the peak number of tagged players and what the plugin did with the trace.
+ * {@link LoadSimulatorTest} asserts on the outcomes, and {@code ./gradlew simulate -Ptrace=players=500,hitRate=2} prints them.
+ */
+public final class LoadSimulator {
+    private static final int TICKS_PER_SECOND = 20;
+    private static final int HITS_PER_PLAYER_POOL = 8;
+
+    private final Trace trace;
+    private final SplittableRandom random;
+    private final Player[] players;
+    private final boolean[] online;
+    private final Map<UUID, Player> onlinePlayers = new HashMap<>();
+    private final EntityDamageByEntityEvent[] damageEvents;
+    private final PlayerTeleportEvent[] teleportEvents;
+    private final PlayerQuitEvent[] quitEvents;
+    private final PlayerJoinEvent[] joinEvents;
+    private final int[] rejoinAt;
+    private int currentTick;
+    private boolean quiet;
+    private long quitsInCombat;
+    private long teleportsInCombat;
+
+    private CombatStats combatStats;
+    private CombatManager combatManager;
+    private BukkitCombatTracker tracker;
+    private PlayerDamageListener damageListener;
+    private PlayerTeleportListener teleportListener;
+    private PlayerQuitListener quitListener;
+    private PlayerJoinListener joinListener;
+
+    /**
+     * A synthetic load trace.
+     * @param players The number of players online.
+     * @param hitRate The player-vs-player hits each player deals per second.
+     * @param teleportRate The teleport attempts each player makes per second.
+     * @param stormEvery How many ticks apart disconnect storms are, 0 for none.
+     * @param stormFraction The fraction of online players that disconnect in a storm.
+     * @param rejoinTicks How many ticks players that disconnected take to rejoin.
+     * @param combatTime The combat time in seconds.
+     * @param storeType The store deadlines are kept in.
+     * @param timerScheduling How per-second updates are spread.
+     * @param warmupTicks The ticks run before measuring.
+     * @param ticks The ticks measured.
+     * @param quietTicks The ticks run after measuring without hits, teleports or disconnects.
+     * @param seed The seed of the random generator.
+     */
+    public record Trace(
+            int players,
+            double hitRate,
+            double teleportRate,
+            int stormEvery,
+            double stormFraction,
+            int rejoinTicks,
+            int combatTime,
+            @NotNull StoreType storeType,
+            @NotNull TimerScheduling timerScheduling,
+            int warmupTicks,
+            int ticks,
+            int quietTicks,
+            long seed) {
+        /**
+         * Parses a trace from {@code key=value} arguments. Missing keys use the defaults of an event night.
+         * @param args The arguments.
+         * @return A Trace
+         */
+        @NotNull
+        public static Trace parse(@NotNull String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for(String arg : args) {
+                int separator = arg.indexOf('=');
+                if(separator == -1) throw new IllegalArgumentException("Expected key=value but got " + arg);
+                values.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+            }
+
+            return new Trace(
+                    Integer.parseInt(values.getOrDefault("players", "300")),
+                    Double.parseDouble(values.getOrDefault("hitRate", "1.5")),
+                    Double.parseDouble(values.getOrDefault("teleportRate", "0.05")),
+                    Integer.parseInt(values.getOrDefault("stormEvery", "1200")),
+                    Double.parseDouble(values.getOrDefault("stormFraction", "0.3")),
+                    Integer.parseInt(values.getOrDefault("rejoinTicks", "100")),
+                    Integer.parseInt(values.getOrDefault("combatTime", "15")),
+                    StoreType.valueOf(values.getOrDefault("storeType", "TIMING_WHEEL")),
+                    TimerScheduling.valueOf(values.getOrDefault("timerScheduling", "SPREAD")),
+                    Integer.parseInt(values.getOrDefault("warmupTicks", "2400")),
+                    Integer.parseInt(values.getOrDefault("ticks", "12000")),
+                    Integer.parseInt(values.getOrDefault("quietTicks", "0")),
+                    Long.parseLong(values.getOrDefault("seed", "1")));
+        }
+    }
+
+    /**
+     * Constructor
+     * @param trace The Trace to replay.
+     */
+    private LoadSimulator(@NotNull Trace trace) {
+        this.trace = trace;
+        this.random = new SplittableRandom(trace.seed());
+        this.players = new Player[trace.players()];
+        this.online = new boolean[trace.players()];
+        this.damageEvents = new EntityDamageByEntityEvent[trace.players() * HITS_PER_PLAYER_POOL];
+        this.teleportEvents = new PlayerTeleportEvent[trace.players()];
+        this.quitEvents = new PlayerQuitEvent[trace.players()];
+        this.joinEvents = new PlayerJoinEvent[trace.players()];
+        this.rejoinAt = new int[trace.players()];
+    }
+
+    /**
+     * Runs the simulator.
+     * @param args The trace as {@code key=value} arguments.
+     * @throws Exception If the fixtures could not be created.
+     */
+    public static void main(String[] args) throws Exception {
+        Trace trace = Trace.parse(args);
+
+        System.out.println("Replaying " + trace);
+        System.out.println(replay(trace).format());
+    }
+
+    /**
+     * Replays a trace from the start.
+     * @param trace The Trace to replay.
+     * @return The Result of the replay.
+     * @throws Exception If the fixtures could not be created.
+     */
+    @NotNull
+    public static Result replay(@NotNull Trace trace) throws Exception {
+        LoadSimulator simulator = new LoadSimulator(trace);
+        simulator.setup();
+        return simulator.run();
+    }
+
+    /**
+     * Creates the plugin, its listeners, the players and every event the trace will fire.
+     * Events are built up front so the measured ticks only allocate what the plugin allocates.
+     * @throws Exception If the fixtures could not be created.
+     */
+    @SuppressWarnings({"deprecation", "UnstableApiUsage"})
+    private void setup() throws Exception {
+        Location location = new Location(null, 0, 64, 0);
+        for(int i = 0; i < players.length; i++) {
+            // Derived from the seed so player order in hash-based collections is stable between runs.
+            Player player = Fixtures.player(new UUID(random.nextLong(), random.nextLong()), "Player" + i);
+            players[i] = player;
+            online[i] = true;
+            onlinePlayers.put(player.getUniqueId(), player);
+            teleportEvents[i] = new PlayerTeleportEvent(player, location, location, PlayerTeleportEvent.TeleportCause.COMMAND);
+            quitEvents[i] = new PlayerQuitEvent(player, Component.empty(), PlayerQuitEvent.QuitReason.DISCONNECTED);
+            joinEvents[i] = new PlayerJoinEvent(player, Component.empty());
+        }
+
+        for(int i = 0; i < damageEvents.length; i++) {
+            Player attacker = players[i / HITS_PER_PLAYER_POOL];
+            Player victim = players[pickOther(i / HITS_PER_PLAYER_POOL)];
+            DamageSource damageSource = Fixtures.stub(DamageSource.class, Map.of(
+                    "getCausingEntity", args -> attacker,
+                    "getDirectEntity", args -> attacker));
+            damageEvents[i] = new EntityDamageByEntityEvent(attacker, victim, EntityDamageEvent.DamageCause.ENTITY_ATTACK, damageSource, 1.0 + random.nextDouble(6.0));
+        }
+
+        SkyCombatLog skyCombatLog = Fixtures.plugin(Fixtures.server(onlinePlayers, () -> currentTick));
+        SettingsManager settingsManager = new SettingsManager(skyCombatLog);
+        LocaleManager localeManager = new LocaleManager(skyCombatLog, settingsManager);
+        Fixtures.setSettings(settingsManager, localeManager, Fixtures.settings(trace.combatTime(), trace.storeType(), trace.timerScheduling()));
+
+        combatStats = new CombatStats();
+        combatManager = new CombatManager(skyCombatLog, settingsManager, localeManager, combatStats);
+        combatManager.startTimerTask();
+        tracker = (BukkitCombatTracker) combatManager.getCombatTracker();
+
+        damageListener = new PlayerDamageListener(settingsManager, combatManager, combatStats, new CombatRuleCache(settingsManager));
+        teleportListener = new PlayerTeleportListener(localeManager, combatManager, combatStats);
+        PunishmentPipeline punishmentPipeline = new PunishmentPipeline(skyCombatLog, settingsManager, combatManager, combatStats);
+        quitListener = new PlayerQuitListener(combatManager, new CombatLogBroadcaster(skyCombatLog, localeManager), combatStats, punishmentPipeline);
+        joinListener = new PlayerJoinListener(combatManager, combatStats, punishmentPipeline);
+    }
+
+    /**
+     * Runs the warmup ticks, the measured ticks, then the quiet ticks.
+     * @return The Result of the measured ticks.
+     */
+    @NotNull
+    private Result run() {
+        for(int i = 0; i < trace.warmupTicks(); i++) {
+            tick();
+        }
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long[] tickNanos = new long[trace.ticks()];
+        long allocatedBytes = 0L;
+        long maxTickAllocatedBytes = 0L;
+        int peakTagged = 0;
+        long peakFootprintBytes = 0L;
+
+        for(int i = 0; i < trace.ticks(); i++) {
+            long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+
+            tick();
+
+            tickNanos[i] = System.nanoTime() - startNanos;
+            long tickBytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+            allocatedBytes += tickBytes;
+            maxTickAllocatedBytes = Math.max(maxTickAllocatedBytes, tickBytes);
+            peakTagged = Math.max(peakTagged, tracker.size());
+            peakFootprintBytes = Math.max(peakFootprintBytes, tracker.estimateFootprintBytes());
+        }
+
+        quiet = true;
+        for(int i = 0; i < trace.quietTicks(); i++) {
+            tick();
+        }
+
+        Arrays.sort(tickNanos);
+        return new Result(tickNanos, allocatedBytes, maxTickAllocatedBytes, peakTagged, peakFootprintBytes, tracker.size(),
+                quitsInCombat, teleportsInCombat,
+                combatStats.getCount(CombatStats.Counter.TAGS),
+                combatStats.getCount(CombatStats.Counter.EXPIRIES),
+                combatStats.getCount(CombatStats.Counter.COMBAT_LOGS),
+                combatStats.getCount(CombatStats.Counter.BLOCKED_TELEPORTS));
+    }
+
+    /**
+     * Advances the virtual clock one tick and fires everything the trace schedules for it, in the order a server would:
+     * rejoins, disconnects, hits and teleports, then the combat timer. Quiet ticks only fire rejoins and the combat timer.
+     */
+    private void tick() {
+        currentTick++;
+
+        for(int i = 0; i < players.length; i++) {
+            if(!online[i] && rejoinAt[i] <= currentTick) {
+                online[i] = true;
+                onlinePlayers.put(players[i].getUniqueId(), players[i]);
+                joinListener.onPlayerJoin(joinEvents[i]);
+            }
+        }
+
+        if(quiet) {
+            tracker.tick();
+            return;
+        }
+
+        if(trace.stormEvery() > 0 && currentTick % trace.stormEvery() == 0) {
+            disconnectStorm();
+        }
+
+        int hits = sample(players.length * trace.hitRate() / TICKS_PER_SECOND);
+        for(int i = 0; i < hits; i++) {
+            EntityDamageByEntityEvent damageEvent = damageEvents[random.nextInt(damageEvents.length)];
+            if(isOnline(damageEvent.getDamager()) && isOnline(damageEvent.getEntity())) {
+                damageListener.onPlayerDamage(damageEvent);
+            }
+        }
+
+        int teleports = sample(players.length * trace.teleportRate() / TICKS_PER_SECOND);
+        for(int i = 0; i < teleports; i++) {
+            int index = random.nextInt(players.length);
+            if(!online[index]) continue;
+
+            if(combatManager.isPlayerInCombat(players[index].getUniqueId())) teleportsInCombat++;
+
+            PlayerTeleportEvent teleportEvent = teleportEvents[index];
+            teleportEvent.setCancelled(false);
+            teleportListener.onTeleport(teleportEvent);
+        }
+
+        tracker.tick();
+    }
+
+    /**
+     * Disconnects the configured fraction of online players at once, in combat or not.
+     */
+    private void disconnectStorm() {
+        for(int i = 0; i < players.length; i++) {
+            if(!online[i] || random.nextDouble() >= trace.stormFraction()) continue;
+
+            if(combatManager.isPlayerInCombat(players[i].getUniqueId())) quitsInCombat++;
+            quitListener.onPlayerQuit(quitEvents[i]);
+            online[i] = false;
+            onlinePlayers.remove(players[i].getUniqueId());
+            rejoinAt[i] = currentTick + Math.max(1, trace.rejoinTicks());
+        }
+    }
+
+    /**
+     * Turns an expected count into a whole count, rounding the fraction up at random so the mean is kept.
+     * @param expected The expected count.
+     * @return The count.
+     */
+    private int sample(double expected) {
+        int count = (int) expected;
+        if(random.nextDouble() < expected - count) count++;
+
+        return count;
+    }
+
+    /**
+     * Picks a player index other than the given one.
+     * @param index The index to avoid.
+     * @return Another player index, or the same one if there is only one player.
+     */
+    private int pickOther(int index) {
+        if(players.length < 2) return index;
+
+        int other = random.nextInt(players.length - 1);
+        return other >= index ? other + 1 : other;
+    }
+
+    /**
+     * Checks if the player behind an entity of an event is online.
+     * @param entity The entity.
+     * @return true if online, false if not.
+     */
+    private boolean isOnline(@NotNull Object entity) {
+        return entity instanceof Player player && onlinePlayers.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * The measurements of the measured ticks and the outcomes of the whole replay.
+     * @param sortedTickNanos The time each measured tick took, sorted.
+     * @param allocatedBytes The bytes allocated over the measured ticks.
+     * @param maxTickAllocatedBytes The most bytes allocated in a single measured tick.
+     * @param peakTagged The most players tagged at once in the measured ticks.
+     * @param peakFootprintBytes The largest estimated footprint of the tracker in the measured ticks.
+     * @param finalTagged The players still tagged after the last tick.
+     * @param quitsInCombat The players that disconnected while in combat.
+     * @param teleportsInCombat The teleports attempted by players in combat.
+     * @param tags The TAGS counter.
+     * @param expiries The EXPIRIES counter.
+     * @param combatLogs The COMBAT_LOGS counter.
+     * @param blockedTeleports The BLOCKED_TELEPORTS counter.
+     */
+    public record Result(
+            long[] sortedTickNanos,
+            long allocatedBytes,
+            long maxTickAllocatedBytes,
+            int peakTagged,
+            long peakFootprintBytes,
+            int finalTagged,
+            long quitsInCombat,
+            long teleportsInCombat,
+            long tags,
+            long expiries,
+            long combatLogs,
+            long blockedTeleports) {
+        /**
+         * Formats the result as a report.
+         * @return The report.
+         */
+        @NotNull
+        private String format() {
+            int ticks = sortedTickNanos.length;
+            StringBuilder builder = new StringBuilder();
+            builder.append("Ticks measured: ").append(ticks).append('\n');
+            builder.append(String.format("Tick time (us): p50 %.1f | p90 %.1f | p99 %.1f | p99.9 %.1f | max %.1f%n",
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999), sortedTickNanos[ticks - 1] / 1000.0));
+            builder.append(String.format("Allocated: %d bytes total | %.1f bytes/tick | max %d bytes in one tick%n",
+                    allocatedBytes, (double) allocatedBytes / ticks, maxTickAllocatedBytes));
+            builder.append("Peak tagged players: ").append(peakTagged).append('\n');
+            builder.append("Peak tracker footprint: ").append(peakFootprintBytes).append(" bytes\n");
+            builder.append(String.format("Tags: %d | expiries: %d | still tagged: %d%n", tags, expiries, finalTagged));
+            builder.append(String.format("Combat logs: %d of %d quits in combat%n", combatLogs, quitsInCombat));
+            builder.append(String.format("Blocked teleports: %d of %d teleports in combat", blockedTeleports, teleportsInCombat));
+            return builder.toString();
+        }
+
+        /**
+         * Gets a tick time percentile.
+         * @param percentile The percentile, from 0 to 1.
+         * @return The tick time in microseconds.
+         */
+        private double percentile(double percentile) {
+            int index = (int) Math.min(sortedTickNanos.length - 1, Math.ceil(percentile * sortedTickNanos.length) - 1);
+            return sortedTickNanos[Math.max(0, index)] / 1000.0;
+        }
+    }
+}
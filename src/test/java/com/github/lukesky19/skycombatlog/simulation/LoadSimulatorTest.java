@@ -0,0 +1,79 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.simulation;
+
+import com.github.lukesky19.skycombatlog.tracker.TimerScheduling;
+import com.github.lukesky19.skycombatlog.tracker.store.StoreType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link LoadSimulator}, asserting on what the plugin did with the replayed trace.
+ */
+public class LoadSimulatorTest {
+    private static final int PLAYERS = 100;
+    private static final int COMBAT_TIME = 5;
+
+    @Test
+    public void sameTraceReplaysToTheSameOutcome() throws Exception {
+        LoadSimulator.Result first = LoadSimulator.replay(trace(StoreType.TIMING_WHEEL, 0));
+        LoadSimulator.Result second = LoadSimulator.replay(trace(StoreType.TIMING_WHEEL, 0));
+
+        assertEquals(first.tags(), second.tags());
+        assertEquals(first.expiries(), second.expiries());
+        assertEquals(first.combatLogs(), second.combatLogs());
+        assertEquals(first.blockedTeleports(), second.blockedTeleports());
+        assertEquals(first.peakTagged(), second.peakTagged());
+        assertEquals(first.finalTagged(), second.finalTagged());
+    }
+
+    @Test
+    public void everyPlayerThatQuitsInCombatIsACombatLog() throws Exception {
+        LoadSimulator.Result result = LoadSimulator.replay(trace(StoreType.TIMING_WHEEL, 0));
+
+        assertTrue(result.quitsInCombat() > 0);
+        assertEquals(result.quitsInCombat(), result.combatLogs());
+    }
+
+    @Test
+    public void everyTeleportInCombatIsBlocked() throws Exception {
+        LoadSimulator.Result result = LoadSimulator.replay(trace(StoreType.TIMING_WHEEL, 0));
+
+        assertTrue(result.teleportsInCombat() > 0);
+        assertEquals(result.teleportsInCombat(), result.blockedTeleports());
+    }
+
+    @Test
+    public void everyTagRunsOutOnceTheFightingStops() throws Exception {
+        // One second past the combat time, so the last tag of the measured ticks has expired in every store.
+        int quietTicks = (COMBAT_TIME + 1) * 20;
+        for(StoreType storeType : StoreType.values()) {
+            LoadSimulator.Result result = LoadSimulator.replay(trace(storeType, quietTicks));
+
+            assertTrue(result.peakTagged() > 0 && result.peakTagged() <= PLAYERS, storeType.name());
+            assertTrue(result.expiries() > 0, storeType.name());
+            assertEquals(0, result.finalTagged(), storeType.name());
+        }
+    }
+
+    private static LoadSimulator.Trace trace(StoreType storeType, int quietTicks) {
+        return new LoadSimulator.Trace(PLAYERS, 2.0, 0.5, 200, 0.3, 40, COMBAT_TIME, storeType, TimerScheduling.SPREAD, 0, 1000, quietTicks, 1L);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PackedCombatStore}.
+ */
+public class PackedCombatStoreTest {
+    @Test
+    public void expireSurvivesCallbackGrowingTheTable() {
+        PackedCombatStore store = new PackedCombatStore();
+        List<UUID> expiring = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            UUID uuid = new UUID(1L, i);
+            expiring.add(uuid);
+            store.put(uuid, 1L);
+        }
+
+        int capacity = store.capacity();
+        Set<UUID> expired = new HashSet<>();
+        store.expire(1L, uuid -> {
+            // Tagging enough new players from the first callback forces the table to grow mid-expiry.
+            if(expired.isEmpty()) {
+                for(int i = 0; i < 100; i++) store.put(new UUID(2L, i), 100L);
+            }
+            expired.add(uuid);
+        });
+
+        assertTrue(store.capacity() > capacity);
+        assertEquals(new HashSet<>(expiring), expired);
+        assertEquals(100, store.size());
+        expiring.forEach(uuid -> assertFalse(store.contains(uuid)));
+    }
+
+    @Test
+    public void expireSkipsPlayersRetaggedByAnEarlierCallback() {
+        PackedCombatStore store = new PackedCombatStore();
+        UUID first = new UUID(1L, 1L);
+        UUID second = new UUID(1L, 2L);
+        store.put(first, 1L);
+        store.put(second, 1L);
+
+        List<UUID> expired = new ArrayList<>();
+        store.expire(1L, uuid -> {
+            // Whichever player expires first re-tags the other.
+            if(expired.isEmpty()) store.put(uuid.equals(first) ? second : first, 100L);
+            expired.add(uuid);
+        });
+
+        assertEquals(1, expired.size());
+        assertEquals(1, store.size());
+    }
+}
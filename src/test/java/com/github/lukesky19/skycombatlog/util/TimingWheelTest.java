@@ -0,0 +1,73 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TimingWheel}.
+ */
+public class TimingWheelTest {
+    @Test
+    public void expiresTheRestOfTheSlotWhenACallbackCancelsAKeyDueTheSameTick() {
+        // Every other key is tried, so one of them is the next node in the slot the expiry loop is walking.
+        for(int cancelled = 1; cancelled <= 4; cancelled++) {
+            TimingWheel<Integer> wheel = new TimingWheel<>(0L);
+            for(int key = 1; key <= 4; key++) wheel.schedule(key, 5L);
+
+            int target = cancelled;
+            List<Integer> expired = new ArrayList<>();
+            boolean[] cancelledTarget = new boolean[1];
+            wheel.advance(5L, key -> {
+                if(expired.isEmpty() && key != target) cancelledTarget[0] = wheel.cancel(target);
+                expired.add(key);
+            });
+
+            assertEquals(cancelledTarget[0] ? 3 : 4, expired.size());
+            assertEquals(!cancelledTarget[0], expired.contains(target));
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    public void keyRescheduledByACallbackDoesNotExpire() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(0L);
+        wheel.schedule(1, 2L);
+        wheel.schedule(2, 2L);
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(2L, key -> {
+            if(expired.isEmpty()) wheel.schedule(key == 1 ? 2 : 1, 10L);
+            expired.add(key);
+        });
+
+        assertEquals(1, expired.size());
+        assertTrue(wheel.contains(expired.get(0) == 1 ? 2 : 1));
+        assertEquals(10L, wheel.getDeadline(expired.get(0) == 1 ? 2 : 1));
+
+        wheel.advance(10L, expired::add);
+        assertEquals(2, expired.size());
+        assertEquals(0, wheel.size());
+    }
+}
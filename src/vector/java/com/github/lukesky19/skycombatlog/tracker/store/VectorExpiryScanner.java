@@ -0,0 +1,56 @@
+/*
+    SkyCombatLog tracks players in combat, kills them if they disconnect in combat, and prevents plugins teleporting players in combat.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skycombatlog.tracker.store;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scans expiry ticks a full vector of lanes at a time using the Vector API.
+ * Only loaded when the jdk.incubator.vector module is enabled.
+ * Lives in its own source set, the only one compiled with the incubating module.
+ */
+class VectorExpiryScanner implements ExpiryScanner {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public int scan(long[] expiries, int length, long currentTick, int[] out) {
+        int count = 0;
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for(; i < upperBound; i += SPECIES.length()) {
+            VectorMask<Long> expired = LongVector.fromArray(SPECIES, expiries, i).compare(VectorOperators.LE, currentTick);
+            if(!expired.anyTrue()) continue;
+
+            long lanes = expired.toLong();
+            while(lanes != 0) {
+                out[count++] = i + Long.numberOfTrailingZeros(lanes);
+                lanes &= lanes - 1;
+            }
+        }
+
+        for(; i < length; i++) {
+            if(expiries[i] <= currentTick) out[count++] = i;
+        }
+
+        return count;
+    }
+}